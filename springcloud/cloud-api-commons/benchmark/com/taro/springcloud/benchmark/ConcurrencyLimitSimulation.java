@@ -0,0 +1,188 @@
+package com.taro.springcloud.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import com.taro.springcloud.limit.ConcurrencyLimitExceededException;
+import com.taro.springcloud.limit.ConcurrencyLimitInterceptor;
+import com.taro.springcloud.limit.ConcurrencyLimitProperties;
+import com.taro.springcloud.limit.ConcurrencyLimiters;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ClassName ConcurrencyLimitSimulation
+ * Author taro
+ * Date 2026/10/18 23:58
+ * Version 1.0
+ */
+
+/**
+ * 本地慢桩服务上的限流模拟：桩服务只有 WORKERS 个处理线程，超出的请求在队列中等待，延迟随负载上升。
+ * 客户端按固定速率发送（开环），请求经过 ConcurrencyLimitInterceptor，读超时 1s。
+ * 分三段：正常（服务 20ms）、变慢（服务 60ms，容量低于请求速率）、恢复（服务 20ms），
+ * 分别统计不限流、gradient、aimd 的成功数、被限流拒绝数、超时数、成功请求的 p50/p99 和平均上限。
+ * benchmark/run.sh com.taro.springcloud.benchmark.ConcurrencyLimitSimulation [每秒请求数] [每段秒数]
+ */
+public class ConcurrencyLimitSimulation {
+
+    private static final int WORKERS = 8;
+
+    private static final long NORMAL_SERVICE_MS = 20;
+
+    private static final long SLOW_SERVICE_MS = 60;
+
+    private static final int TIMEOUT_MS = 1000;
+
+    private static final String[] PHASES = {"正常", "变慢", "恢复"};
+
+    public static void main(String[] args) throws Exception {
+        //JDK HttpServer 默认不关闭 Nagle，和客户端的延迟确认叠加会给每个响应多出约 40ms
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        int rate = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int phaseSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        System.out.printf("桩服务 %d 个处理线程，容量 正常 %d/s，变慢 %d/s；请求 %d/s，每段 %ds，超时 %dms%n",
+                WORKERS, WORKERS * 1000 / NORMAL_SERVICE_MS, WORKERS * 1000 / SLOW_SERVICE_MS, rate, phaseSeconds, TIMEOUT_MS);
+        System.out.printf("%-9s %-4s %7s %7s %7s %8s %8s %7s%n", "算法", "阶段", "成功", "拒绝", "超时", "p50(ms)", "p99(ms)", "上限");
+        for (String algorithm : new String[]{"off", "gradient", "aimd"}) {
+            run(algorithm, rate, phaseSeconds);
+        }
+    }
+
+    private static void run(String algorithm, int rate, int phaseSeconds) throws Exception {
+        long start = System.nanoTime();
+        long phaseNanos = TimeUnit.SECONDS.toNanos(phaseSeconds);
+        HttpServer server = stub(() -> phaseOf(start, phaseNanos) == 1 ? SLOW_SERVICE_MS : NORMAL_SERVICE_MS);
+
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setEnabled(!"off".equals(algorithm));
+        properties.setAlgorithm("off".equals(algorithm) ? "gradient" : algorithm);
+        properties.setTimeoutMs(TIMEOUT_MS);
+        ConcurrencyLimiters limiters = new ConcurrencyLimiters(properties);
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(TIMEOUT_MS);
+        factory.setReadTimeout(TIMEOUT_MS);
+        RestTemplate restTemplate = new RestTemplate(factory);
+        restTemplate.getInterceptors().add(new ConcurrencyLimitInterceptor(limiters));
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/payment/get/1";
+        String downstream = "127.0.0.1:" + server.getAddress().getPort();
+
+        Phase[] phases = {new Phase(), new Phase(), new Phase()};
+        ExecutorService clients = Executors.newCachedThreadPool();
+        ScheduledExecutorService ticker = Executors.newScheduledThreadPool(2);
+        //开环：按固定速率发出，不等待前面的请求返回
+        ticker.scheduleAtFixedRate(() -> {
+            long sent = System.nanoTime();
+            int phase = phaseOf(start, phaseNanos);
+            if (phase >= PHASES.length) {
+                return;
+            }
+            clients.execute(() -> {
+                try {
+                    restTemplate.getForObject(url, String.class);
+                    phases[phase].ok(System.nanoTime() - sent);
+                } catch (ConcurrencyLimitExceededException e) {
+                    phases[phase].rejected.incrementAndGet();
+                } catch (ResourceAccessException e) {
+                    phases[phase].timeout.incrementAndGet();
+                }
+            });
+        }, 0, 1_000_000 / rate, TimeUnit.MICROSECONDS);
+        //每 100ms 记录一次上限
+        ticker.scheduleAtFixedRate(() -> {
+            int phase = phaseOf(start, phaseNanos);
+            if (phase < PHASES.length && !"off".equals(algorithm)) {
+                phases[phase].limit(limiters.get(downstream).getLimit());
+            }
+        }, 100, 100, TimeUnit.MILLISECONDS);
+
+        Thread.sleep(TimeUnit.NANOSECONDS.toMillis(phaseNanos * PHASES.length));
+        ticker.shutdown();
+        clients.shutdown();
+        clients.awaitTermination(TIMEOUT_MS * 2L, TimeUnit.MILLISECONDS);
+        server.stop(0);
+        ((ExecutorService) server.getExecutor()).shutdownNow();
+
+        for (int i = 0; i < PHASES.length; i++) {
+            Phase phase = phases[i];
+            System.out.printf("%-9s %-4s %7d %7d %7d %8.1f %8.1f %7s%n", algorithm, PHASES[i],
+                    phase.latencies.size(), phase.rejected.get(), phase.timeout.get(),
+                    phase.percentile(0.50), phase.percentile(0.99),
+                    phase.limitSamples.get() == 0 ? "-" : String.valueOf(phase.limitSum.get() / phase.limitSamples.get()));
+        }
+    }
+
+    private static int phaseOf(long start, long phaseNanos) {
+        return (int) ((System.nanoTime() - start) / phaseNanos);
+    }
+
+    //处理线程固定，排队的请求和 tomcat 一样只能等待，客户端超时后已经排队的请求仍会被处理
+    private static HttpServer stub(ServiceTime serviceTime) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4096);
+        byte[] body = "{\"code\":200,\"message\":\"stub\",\"data\":{\"id\":1,\"serial\":\"s1\"}}".getBytes(StandardCharsets.UTF_8);
+        server.createContext("/payment/get/", exchange -> {
+            try {
+                Thread.sleep(serviceTime.millis());
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (Exception e) {
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(WORKERS));
+        server.start();
+        return server;
+    }
+
+    private interface ServiceTime {
+        long millis();
+    }
+
+    private static final class Phase {
+
+        final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+        final AtomicLong rejected = new AtomicLong();
+
+        final AtomicLong timeout = new AtomicLong();
+
+        final AtomicLong limitSum = new AtomicLong();
+
+        final AtomicLong limitSamples = new AtomicLong();
+
+        void ok(long nanos) {
+            latencies.add(nanos);
+        }
+
+        void limit(int limit) {
+            limitSum.addAndGet(limit);
+            limitSamples.incrementAndGet();
+        }
+
+        double percentile(double p) {
+            List<Long> sorted;
+            synchronized (latencies) {
+                sorted = new ArrayList<>(latencies);
+            }
+            if (sorted.isEmpty()) {
+                return 0;
+            }
+            Collections.sort(sorted);
+            return sorted.get((int) Math.min(sorted.size() - 1, Math.floor(p * sorted.size()))) / 1e6;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.taro.springcloud.benchmark;
+
+import com.taro.springcloud.entities.Payment;
+import com.taro.springcloud.store.ConcurrentPaymentStore;
+import com.taro.springcloud.utils.SerialGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+/**
+ * ClassName PaymentStoreBenchmark
+ * Author taro
+ * Date 2026/10/18 23:55
+ * Version 1.0
+ */
+
+/**
+ * ConcurrentPaymentStore 和 ConcurrentHashMap<Long, Payment> 按 id 随机查询的吞吐对比，id 都存在。
+ * 两者的 get 都返回 Payment：store 每次新建对象，map 返回保存的对象。堆占用见 PaymentStoreFootprint。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class PaymentStoreBenchmark {
+
+    //查询的 id 预先生成，避免把随机数的开销算进去
+    private static final int LOOKUPS = 1 << 20;
+
+    @Param({"1000000", "10000000"})
+    private int size;
+
+    @Param({"store", "chm"})
+    private String impl;
+
+    private LongFunction<Payment> lookup;
+
+    private long[] ids;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        if ("store".equals(impl)) {
+            ConcurrentPaymentStore store = new ConcurrentPaymentStore(size);
+            for (long id = 1; id <= size; id++) {
+                store.put(new Payment(id, SerialGenerator.nextHex()));
+            }
+            lookup = store::get;
+        } else {
+            ConcurrentHashMap<Long, Payment> map = new ConcurrentHashMap<>(size * 4 / 3 + 1);
+            for (long id = 1; id <= size; id++) {
+                map.put(id, new Payment(id, SerialGenerator.nextHex()));
+            }
+            lookup = map::get;
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        ids = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            ids[i] = 1 + random.nextInt(size);
+        }
+    }
+
+    //多线程时共享下标，读到相同或跳过的 id 不影响结果
+    @Benchmark
+    public Payment get() {
+        int i = next++ & (LOOKUPS - 1);
+        return lookup.apply(ids[i]);
+    }
+}
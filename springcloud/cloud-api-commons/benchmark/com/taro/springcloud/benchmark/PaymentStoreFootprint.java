@@ -0,0 +1,58 @@
+package com.taro.springcloud.benchmark;
+
+import com.taro.springcloud.entities.Payment;
+import com.taro.springcloud.store.ConcurrentPaymentStore;
+import com.taro.springcloud.utils.SerialGenerator;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ClassName PaymentStoreFootprint
+ * Author taro
+ * Date 2026/10/18 23:55
+ * Version 1.0
+ */
+
+/**
+ * 写入 size 条 payment 前后各做几次 full GC，用堆占用的差值估算每条记录的字节数。
+ * 每种存储单独启动一个 JVM，避免互相影响：
+ * JAVA_OPTS=-Xmx3g benchmark/run.sh com.taro.springcloud.benchmark.PaymentStoreFootprint store 10000000
+ */
+public class PaymentStoreFootprint {
+
+    //保证统计时存储仍然可达
+    private static Object retained;
+
+    public static void main(String[] args) {
+        String impl = args[0];
+        int size = Integer.parseInt(args[1]);
+        long before = usedAfterGc();
+        if ("store".equals(impl)) {
+            ConcurrentPaymentStore store = new ConcurrentPaymentStore(size);
+            for (long id = 1; id <= size; id++) {
+                store.put(new Payment(id, SerialGenerator.nextHex()));
+            }
+            retained = store;
+        } else {
+            Map<Long, Payment> map = new ConcurrentHashMap<>(size * 4 / 3 + 1);
+            for (long id = 1; id <= size; id++) {
+                map.put(id, new Payment(id, SerialGenerator.nextHex()));
+            }
+            retained = map;
+        }
+        long used = usedAfterGc() - before;
+        System.out.printf("impl=%s size=%d heap=%.1fMB bytes/entry=%.1f%n",
+                impl, size, used / 1048576.0, (double) used / size);
+    }
+
+    private static long usedAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,57 @@
+package com.taro.springcloud.benchmark;
+
+import cn.hutool.core.util.IdUtil;
+import com.taro.springcloud.utils.SerialGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassName SerialGeneratorBenchmark
+ * Author taro
+ * Date 2026/10/18 23:55
+ * Version 1.0
+ */
+
+/**
+ * SerialGenerator 和原来两种写法的吞吐对比：UUID.randomUUID()（rabbitmq provider）和 IdUtil.simpleUUID()（hystrix payment）。
+ * 后两者都经过共享的 SecureRandom。线程数用 JMH 的 -t 指定：
+ * for t in 1 2 4 8 16 32 64; do benchmark/run.sh SerialGeneratorBenchmark -t $t; done
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SerialGeneratorBenchmark {
+
+    @Benchmark
+    public String uuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String hutoolSimpleUuid() {
+        return IdUtil.simpleUUID();
+    }
+
+    @Benchmark
+    public String serialHex() {
+        return SerialGenerator.nextHex();
+    }
+
+    @Benchmark
+    public String serialCompact() {
+        return SerialGenerator.nextCompact();
+    }
+}
@@ -0,0 +1,109 @@
+package com.taro.autoconfigure;
+
+import com.netflix.hystrix.HystrixThreadPoolKey;
+import com.netflix.hystrix.HystrixThreadPoolProperties;
+import com.netflix.hystrix.strategy.HystrixPlugins;
+import com.netflix.hystrix.strategy.concurrency.HystrixConcurrencyStrategy;
+import com.netflix.hystrix.strategy.concurrency.HystrixConcurrencyStrategyDefault;
+import com.netflix.hystrix.strategy.eventnotifier.HystrixEventNotifier;
+import com.netflix.hystrix.strategy.executionhook.HystrixCommandExecutionHook;
+import com.netflix.hystrix.strategy.metrics.HystrixMetricsPublisher;
+import com.netflix.hystrix.strategy.properties.HystrixPropertiesStrategy;
+import com.taro.springcloud.utils.VirtualThreads;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassName VirtualThreadAutoConfiguration
+ * Author taro
+ * Date 2026/10/18 9:30
+ * Version 1.0
+ */
+
+/**
+ * spring.threads.virtual.enabled=true 时，tomcat 处理请求和 hystrix 线程池隔离的命令都改为在虚拟线程中执行，
+ * RestTemplate、Feign、JDBC 等阻塞调用不再受平台线程池大小限制。需要用 JDK 21 及以上运行。
+ * 通过 spring.factories 加载，不能放在各服务扫描的 com.taro.springcloud 包下，否则内部配置类会绕过开关被扫描到。
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "spring.threads.virtual", name = "enabled", havingValue = "true")
+public class VirtualThreadAutoConfiguration {
+
+    @Configuration
+    @ConditionalOnClass({ProtocolHandler.class, TomcatProtocolHandlerCustomizer.class})
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class TomcatVirtualThreadConfiguration {
+
+        //每个请求一个虚拟线程，server.tomcat.max-threads 不再生效，并发由 max-connections 限制
+        @Bean
+        public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+            VirtualThreads.requireSupported();
+            log.info("tomcat 请求处理使用虚拟线程");
+            return protocolHandler -> protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("tomcat-handler-"));
+        }
+    }
+
+    @Configuration
+    @ConditionalOnClass(HystrixConcurrencyStrategy.class)
+    static class HystrixVirtualThreadConfiguration {
+
+        /**
+         * actuator 的 hystrix 指标等组件启动时会先取一次插件，默认并发策略因此已经注册，
+         * 这里保留其他插件，重置后重新注册。已经是自定义策略时不覆盖。
+         */
+        @Bean
+        public HystrixConcurrencyStrategy virtualThreadHystrixConcurrencyStrategy() {
+            VirtualThreads.requireSupported();
+            HystrixPlugins plugins = HystrixPlugins.getInstance();
+            HystrixConcurrencyStrategy existing = plugins.getConcurrencyStrategy();
+            if (!(existing instanceof HystrixConcurrencyStrategyDefault)) {
+                log.warn("hystrix 并发策略已被注册为 {}，不使用虚拟线程", existing.getClass().getName());
+                return existing;
+            }
+            HystrixEventNotifier eventNotifier = plugins.getEventNotifier();
+            HystrixMetricsPublisher metricsPublisher = plugins.getMetricsPublisher();
+            HystrixPropertiesStrategy propertiesStrategy = plugins.getPropertiesStrategy();
+            HystrixCommandExecutionHook commandExecutionHook = plugins.getCommandExecutionHook();
+            HystrixPlugins.reset();
+            VirtualThreadHystrixConcurrencyStrategy strategy = new VirtualThreadHystrixConcurrencyStrategy();
+            plugins = HystrixPlugins.getInstance();
+            plugins.registerConcurrencyStrategy(strategy);
+            plugins.registerEventNotifier(eventNotifier);
+            plugins.registerMetricsPublisher(metricsPublisher);
+            plugins.registerPropertiesStrategy(propertiesStrategy);
+            plugins.registerCommandExecutionHook(commandExecutionHook);
+            log.info("hystrix 线程池隔离使用虚拟线程");
+            return strategy;
+        }
+    }
+
+    /**
+     * 保留 hystrix 线程池的 coreSize、maxQueueSize 等配置，线程池的大小仍然是舱壁隔离的并发上限，
+     * 只是工作线程换成虚拟线程，命令中的阻塞调用不再占用平台线程。
+     */
+    static class VirtualThreadHystrixConcurrencyStrategy extends HystrixConcurrencyStrategy {
+
+        @Override
+        public ThreadPoolExecutor getThreadPool(HystrixThreadPoolKey threadPoolKey, HystrixThreadPoolProperties threadPoolProperties) {
+            int coreSize = threadPoolProperties.coreSize().get();
+            int maximumSize = coreSize;
+            if (threadPoolProperties.getAllowMaximumSizeToDivergeFromCoreSize().get()) {
+                maximumSize = Math.max(coreSize, threadPoolProperties.maximumSize().get());
+            }
+            return new ThreadPoolExecutor(coreSize, maximumSize,
+                    threadPoolProperties.keepAliveTimeMinutes().get(), TimeUnit.MINUTES,
+                    getBlockingQueue(threadPoolProperties.maxQueueSize().get()),
+                    VirtualThreads.factory("hystrix-" + threadPoolKey.name() + "-"));
+        }
+    }
+}
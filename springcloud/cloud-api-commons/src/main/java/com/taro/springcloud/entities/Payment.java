@@ -1,8 +1,10 @@
 package com.taro.springcloud.entities;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import com.taro.springcloud.utils.SerialCodec;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 
 import java.io.Serializable;
 
@@ -13,12 +15,46 @@ import java.io.Serializable;
  * Version 1.0
  */
 
-@Data
-@AllArgsConstructor
 @NoArgsConstructor
+@EqualsAndHashCode
 public class Payment implements Serializable {
 
+    @Getter
+    @Setter
     private Long id;
-    private String serial;
 
+    //32 位小写十六进制的流水号压缩成两个 long 保存，其他格式原样保存在 serialText 中
+    //对外（getter/setter、JSON）仍然是十六进制字符串
+    private long serialHigh;
+    private long serialLow;
+    private String serialText;
+    private boolean compactSerial;
+
+    public Payment(Long id, String serial) {
+        this.id = id;
+        setSerial(serial);
+    }
+
+    public String getSerial() {
+        return compactSerial ? SerialCodec.toHex(serialHigh, serialLow) : serialText;
+    }
+
+    public void setSerial(String serial) {
+        if (SerialCodec.isCompactHex(serial)) {
+            serialHigh = SerialCodec.highOf(serial);
+            serialLow = SerialCodec.lowOf(serial);
+            serialText = null;
+            compactSerial = true;
+        } else {
+            serialHigh = 0;
+            serialLow = 0;
+            serialText = serial;
+            compactSerial = false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Payment(id=" + id + ", serial=" + getSerial() + ")";
+    }
 }
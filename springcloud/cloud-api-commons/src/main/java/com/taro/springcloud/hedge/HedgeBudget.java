@@ -0,0 +1,61 @@
+package com.taro.springcloud.hedge;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ClassName HedgeBudget
+ * Author taro
+ * Date 2026/10/18 17:40
+ * Version 1.0
+ */
+
+/**
+ * 按请求数补充的令牌桶：每个请求存入 ratio 个令牌，对冲取出一个。
+ * 和按时间补充不同，请求量下降时预算随之下降，服务端过载变慢时对冲量不会超过正常请求的 ratio 倍。
+ * 以千分之一令牌为单位保存，避免浮点 CAS。
+ */
+class HedgeBudget {
+
+    private static final long UNIT = 1000;
+
+    private final long deposit;
+
+    private final long max;
+
+    private final AtomicLong tokens;
+
+    HedgeBudget(double ratio, int maxTokens) {
+        this.deposit = Math.max(1, Math.round(ratio * UNIT));
+        this.max = Math.max(1, maxTokens) * UNIT;
+        //启动时桶是满的，刚启动就遇到慢实例也能对冲
+        this.tokens = new AtomicLong(max);
+    }
+
+    void deposit() {
+        for (;;) {
+            long current = tokens.get();
+            if (current >= max) {
+                return;
+            }
+            if (tokens.compareAndSet(current, Math.min(max, current + deposit))) {
+                return;
+            }
+        }
+    }
+
+    boolean tryAcquire() {
+        for (;;) {
+            long current = tokens.get();
+            if (current < UNIT) {
+                return false;
+            }
+            if (tokens.compareAndSet(current, current - UNIT)) {
+                return true;
+            }
+        }
+    }
+
+    double available() {
+        return (double) tokens.get() / UNIT;
+    }
+}
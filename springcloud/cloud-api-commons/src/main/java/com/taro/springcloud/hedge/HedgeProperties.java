@@ -0,0 +1,46 @@
+package com.taro.springcloud.hedge;
+
+import lombok.Data;
+
+/**
+ * ClassName HedgeProperties
+ * Author taro
+ * Date 2026/10/18 17:30
+ * Version 1.0
+ */
+
+//对冲请求的配置，消费者模块绑定到 consumer.hedge
+@Data
+public class HedgeProperties {
+
+    //关闭时只发送一次请求，但仍然统计延迟
+    private boolean enabled = false;
+
+    //指标中 name 标签的值
+    private String name = "default";
+
+    //超过最近延迟的这个分位数还没有返回就发送对冲请求
+    private double percentile = 0.95;
+
+    //统计分位数的最近请求数
+    private int windowSize = 1024;
+
+    //样本数不足 minSamples 时使用 initialDelayMs
+    private int minSamples = 100;
+
+    private long initialDelayMs = 50;
+
+    //对冲延迟的上下限，避免分位数过小时大量对冲、过大时对冲失去意义
+    private long minDelayMs = 5;
+
+    private long maxDelayMs = 1000;
+
+    //每个请求积累 budgetRatio 个令牌，对冲一次消耗一个，即额外流量最多为 budgetRatio
+    private double budgetRatio = 0.05;
+
+    //令牌上限，允许短时间的突发对冲
+    private int budgetMaxTokens = 10;
+
+    //执行请求的线程数，线程用完时退化为在调用线程直接请求、不对冲
+    private int threads = 64;
+}
@@ -0,0 +1,273 @@
+package com.taro.springcloud.hedge;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * ClassName Hedger
+ * Author taro
+ * Date 2026/10/18 17:50
+ * Version 1.0
+ */
+
+/**
+ * 对冲请求：先向一个实例发送请求，超过最近延迟的分位数还没有返回时，向另一个实例再发送一次，使用先返回的结果。
+ * 只能用于幂等的读请求。对冲受 HedgeBudget 限制，额外流量不超过请求量的 budget-ratio，服务端整体变慢时不会放大负载。
+ * 任意一次成功即返回；两次都失败才抛出第一次的异常。对冲不是重试，第一次失败时如果还没有对冲，直接抛出异常。
+ * 作为 MeterBinder 注册成 bean 后输出 hedge.* 指标，wins / sent 为对冲的命中率。
+ * 两次请求都在 hedge 线程上执行，先返回的一方可以取消另一方；调用方的 trace、MDC 等上下文通过 contextPropagator 带过去。
+ */
+public class Hedger implements MeterBinder, Closeable {
+
+    private final HedgeProperties properties;
+
+    private final LatencyWindow window;
+
+    private final HedgeBudget budget;
+
+    private final ThreadPoolExecutor executor;
+
+    private final ScheduledThreadPoolExecutor timer;
+
+    private final UnaryOperator<Runnable> contextPropagator;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hedged = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public Hedger(HedgeProperties properties) {
+        this(properties, UnaryOperator.identity());
+    }
+
+    /**
+     * contextPropagator 在调用方线程上包装要交给 hedge 线程执行的任务，例如 sleuth 的 CurrentTraceContext::wrap。
+     */
+    public Hedger(HedgeProperties properties, UnaryOperator<Runnable> contextPropagator) {
+        this.properties = properties;
+        this.contextPropagator = contextPropagator;
+        this.window = new LatencyWindow(properties.getWindowSize(), properties.getPercentile(), properties.getMinSamples());
+        this.budget = new HedgeBudget(properties.getBudgetRatio(), properties.getBudgetMaxTokens());
+        //不排队：线程用完说明下游已经很慢，这时不应该再对冲
+        this.executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), threadFactory("hedge-" + properties.getName() + "-"), new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        this.timer = new ScheduledThreadPoolExecutor(1, threadFactory("hedge-timer-" + properties.getName() + "-"));
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * primary 发往首选实例，backup 发往另一个实例；没有其他实例时 backup 传 null，只发送一次。
+     */
+    public <T> T execute(Supplier<T> primary, Supplier<T> backup) {
+        requests.increment();
+        budget.deposit();
+        if (!properties.isEnabled() || backup == null) {
+            return timed(primary);
+        }
+        Race<T> race = new Race<>(backup);
+        Runnable primaryRun = contextPropagator.apply(() -> race.run(primary, false));
+        try {
+            synchronized (race) {
+                race.primaryTask = executor.submit(primaryRun);
+            }
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return timed(primary);
+        }
+        race.schedule(delayNanos());
+        return await(race.result);
+    }
+
+    //当前的对冲延迟
+    public long delayMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(delayNanos());
+    }
+
+    private long delayNanos() {
+        long percentile = window.percentileNanos();
+        long delay = percentile < 0 ? TimeUnit.MILLISECONDS.toNanos(properties.getInitialDelayMs()) : percentile;
+        return Math.max(TimeUnit.MILLISECONDS.toNanos(properties.getMinDelayMs()),
+                Math.min(TimeUnit.MILLISECONDS.toNanos(properties.getMaxDelayMs()), delay));
+    }
+
+    private <T> T timed(Supplier<T> supplier) {
+        long start = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            window.record(System.nanoTime() - start);
+        }
+    }
+
+    private final class Race<T> {
+
+        final CompletableFuture<T> result = new CompletableFuture<>();
+
+        final long start = System.nanoTime();
+
+        //在调用方线程上包装，由 timer 线程提交时仍然带着调用方的上下文
+        final Runnable backupRun;
+
+        //以下字段都在 synchronized (this) 中访问
+        int outstanding = 1;
+        boolean hedgeClosed;
+        Throwable failure;
+        Future<?> primaryTask;
+        Future<?> backupTask;
+        ScheduledFuture<?> hedgeTimer;
+
+        Race(Supplier<T> backup) {
+            this.backupRun = contextPropagator.apply(() -> run(backup, true));
+        }
+
+        synchronized void schedule(long delayNanos) {
+            if (!hedgeClosed) {
+                hedgeTimer = timer.schedule(this::hedge, delayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        synchronized void hedge() {
+            if (hedgeClosed || result.isDone()) {
+                return;
+            }
+            hedgeClosed = true;
+            if (!budget.tryAcquire()) {
+                budgetExhausted.increment();
+                return;
+            }
+            try {
+                backupTask = executor.submit(backupRun);
+                outstanding++;
+                hedged.increment();
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+            }
+        }
+
+        void run(Supplier<T> attempt, boolean isBackup) {
+            T value;
+            try {
+                value = attempt.get();
+            } catch (Throwable e) {
+                recordPrimary(isBackup);
+                fail(e);
+                return;
+            }
+            recordPrimary(isBackup);
+            if (result.complete(value)) {
+                if (isBackup) {
+                    wins.increment();
+                }
+                finish(isBackup);
+            }
+        }
+
+        //只统计首选请求的延迟，对冲请求的延迟会让分位数偏低
+        private void recordPrimary(boolean isBackup) {
+            if (!isBackup) {
+                window.record(System.nanoTime() - start);
+            }
+        }
+
+        private synchronized void fail(Throwable e) {
+            if (failure == null) {
+                failure = e;
+            } else if (failure != e) {
+                failure.addSuppressed(e);
+            }
+            if (--outstanding == 0 && !result.isDone()) {
+                hedgeClosed = true;
+                if (hedgeTimer != null) {
+                    hedgeTimer.cancel(false);
+                }
+                result.completeExceptionally(failure);
+            }
+        }
+
+        //取消还没有执行的对冲和落后的一方
+        private synchronized void finish(boolean backupWon) {
+            hedgeClosed = true;
+            if (hedgeTimer != null) {
+                hedgeTimer.cancel(false);
+            }
+            Future<?> loser = backupWon ? primaryTask : backupTask;
+            if (loser != null) {
+                loser.cancel(true);
+            }
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger index = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        String name = properties.getName();
+        FunctionCounter.builder("hedge.requests", requests, LongAdder::sum)
+                .tag("name", name).description("请求数").register(registry);
+        FunctionCounter.builder("hedge.sent", hedged, LongAdder::sum)
+                .tag("name", name).description("发送的对冲请求数").register(registry);
+        FunctionCounter.builder("hedge.wins", wins, LongAdder::sum)
+                .tag("name", name).description("对冲请求先返回的次数").register(registry);
+        FunctionCounter.builder("hedge.budget.exhausted", budgetExhausted, LongAdder::sum)
+                .tag("name", name).description("预算不足没有对冲的次数").register(registry);
+        FunctionCounter.builder("hedge.rejected", rejected, LongAdder::sum)
+                .tag("name", name).description("线程用完没有对冲的次数").register(registry);
+        Gauge.builder("hedge.delay", this, Hedger::delayMillis)
+                .tag("name", name).baseUnit("milliseconds").register(registry);
+        Gauge.builder("hedge.budget.tokens", budget, HedgeBudget::available)
+                .tag("name", name).register(registry);
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        executor.shutdownNow();
+    }
+}
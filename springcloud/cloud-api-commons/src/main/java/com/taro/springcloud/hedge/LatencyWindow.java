@@ -0,0 +1,62 @@
+package com.taro.springcloud.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ClassName LatencyWindow
+ * Author taro
+ * Date 2026/10/18 17:45
+ * Version 1.0
+ */
+
+/**
+ * 保存最近 size 个延迟样本的环形数组，每写入 size/8 个样本由写入的线程重新计算一次分位数。
+ * 读取只是一次 volatile 读，重新计算是复制加排序，分摊到每个请求上很小。
+ */
+class LatencyWindow {
+
+    private final AtomicLongArray samples;
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final double percentile;
+
+    private final int minSamples;
+
+    private final int recomputeEvery;
+
+    private volatile long percentileNanos = -1;
+
+    LatencyWindow(int size, double percentile, int minSamples) {
+        this.samples = new AtomicLongArray(Math.max(16, size));
+        this.percentile = Math.min(1.0, Math.max(0.0, percentile));
+        this.minSamples = Math.max(1, Math.min(minSamples, samples.length()));
+        this.recomputeEvery = Math.max(1, samples.length() / 8);
+    }
+
+    void record(long nanos) {
+        long n = count.getAndIncrement();
+        samples.set((int) (n % samples.length()), nanos);
+        long total = n + 1;
+        if (total >= minSamples && (total == minSamples || total % recomputeEvery == 0)) {
+            recompute((int) Math.min(total, samples.length()));
+        }
+    }
+
+    //样本不足时返回 -1
+    long percentileNanos() {
+        return percentileNanos;
+    }
+
+    private void recompute(int filled) {
+        long[] copy = new long[filled];
+        for (int i = 0; i < filled; i++) {
+            copy[i] = samples.get(i);
+        }
+        Arrays.sort(copy);
+        int index = (int) Math.ceil(percentile * filled) - 1;
+        percentileNanos = copy[Math.max(0, Math.min(filled - 1, index))];
+    }
+}
@@ -0,0 +1,42 @@
+package com.taro.springcloud.http;
+
+import lombok.Data;
+
+/**
+ * ClassName HttpClientProperties
+ * Author taro
+ * Date 2026/10/18 16:10
+ * Version 1.0
+ */
+
+//消费者调用服务端使用的 http 连接池配置，各模块绑定到 consumer.http
+@Data
+public class HttpClientProperties {
+
+    //指标中 pool 标签的值
+    private String name = "default";
+
+    //http1：apache httpclient 连接池；http2：okhttp，https 下通过 ALPN 协商；h2c：okhttp 明文 http2，服务端需要支持
+    private String protocol = "http1";
+
+    private int maxTotal = 200;
+
+    //每个 host:port 的最大连接数
+    private int maxPerRoute = 50;
+
+    private int connectTimeoutMs = 1000;
+
+    private int readTimeoutMs = 5000;
+
+    //连接池耗尽时等待空闲连接的最长时间，超时直接失败
+    private int connectionRequestTimeoutMs = 500;
+
+    //服务端没有返回 Keep-Alive 头时连接保持的时间
+    private long keepAliveMs = 30000;
+
+    //空闲超过这个时间的连接由后台线程关闭
+    private long idleEvictMs = 30000;
+
+    //空闲超过这个时间的连接复用前先检查是否已被服务端关闭
+    private int validateAfterInactivityMs = 2000;
+}
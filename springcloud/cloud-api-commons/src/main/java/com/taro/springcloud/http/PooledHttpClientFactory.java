@@ -0,0 +1,174 @@
+package com.taro.springcloud.http;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.apache.http.HeaderElement;
+import org.apache.http.HeaderElementIterator;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.protocol.HTTP;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.OkHttp3ClientHttpRequestFactory;
+import org.springframework.util.ClassUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassName PooledHttpClientFactory
+ * Author taro
+ * Date 2026/10/18 16:20
+ * Version 1.0
+ */
+
+/**
+ * 给 RestTemplate 使用的连接池客户端：长连接复用、每个路由限制连接数、后台关闭空闲连接。
+ * 默认使用 apache httpclient；protocol 为 http2/h2c 时使用 okhttp，需要模块自己引入 okhttp 依赖。
+ * 作为 MeterBinder 注册成 bean 后，连接池的使用情况会出现在 http.client.pool.* 指标中，pending 大于 0 说明连接池已满。
+ */
+public class PooledHttpClientFactory implements MeterBinder, Closeable {
+
+    private final HttpClientProperties properties;
+
+    private final ClientHttpRequestFactory requestFactory;
+
+    //两种实现只会有一个不为 null
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+    private OkHttpPool okHttpPool;
+
+    public PooledHttpClientFactory(HttpClientProperties properties) {
+        this.properties = properties;
+        if ("http1".equalsIgnoreCase(properties.getProtocol())) {
+            requestFactory = createHttpComponents();
+        } else if ("http2".equalsIgnoreCase(properties.getProtocol()) || "h2c".equalsIgnoreCase(properties.getProtocol())) {
+            if (!ClassUtils.isPresent("okhttp3.OkHttpClient", getClass().getClassLoader())) {
+                throw new IllegalStateException("protocol 为 " + properties.getProtocol() + " 时需要引入 com.squareup.okhttp3:okhttp");
+            }
+            okHttpPool = new OkHttpPool(properties);
+            requestFactory = okHttpPool.requestFactory();
+        } else {
+            throw new IllegalArgumentException("不支持的 protocol: " + properties.getProtocol());
+        }
+    }
+
+    public ClientHttpRequestFactory requestFactory() {
+        return requestFactory;
+    }
+
+    private ClientHttpRequestFactory createHttpComponents() {
+        connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxPerRoute());
+        connectionManager.setValidateAfterInactivity(properties.getValidateAfterInactivityMs());
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(properties.getConnectTimeoutMs())
+                .setSocketTimeout(properties.getReadTimeoutMs())
+                .setConnectionRequestTimeout(properties.getConnectionRequestTimeoutMs())
+                .build();
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy())
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.getIdleEvictMs(), TimeUnit.MILLISECONDS)
+                .build();
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    //优先使用服务端 Keep-Alive: timeout=n 的值
+    private ConnectionKeepAliveStrategy keepAliveStrategy() {
+        return (response, context) -> {
+            HeaderElementIterator iterator = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+            while (iterator.hasNext()) {
+                HeaderElement element = iterator.nextElement();
+                if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                    try {
+                        return Long.parseLong(element.getValue()) * 1000;
+                    } catch (NumberFormatException e) {
+                        break;
+                    }
+                }
+            }
+            return properties.getKeepAliveMs();
+        };
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        String pool = properties.getName();
+        if (connectionManager != null) {
+            PoolingHttpClientConnectionManager manager = connectionManager;
+            Gauge.builder("http.client.pool.leased", manager, m -> m.getTotalStats().getLeased())
+                    .tag("pool", pool).description("正在使用的连接数").register(registry);
+            Gauge.builder("http.client.pool.available", manager, m -> m.getTotalStats().getAvailable())
+                    .tag("pool", pool).description("空闲的连接数").register(registry);
+            Gauge.builder("http.client.pool.pending", manager, m -> m.getTotalStats().getPending())
+                    .tag("pool", pool).description("等待连接的请求数").register(registry);
+            Gauge.builder("http.client.pool.max", manager, m -> m.getTotalStats().getMax())
+                    .tag("pool", pool).register(registry);
+        } else {
+            okHttpPool.bindTo(registry, pool);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        if (okHttpPool != null) {
+            okHttpPool.close();
+        }
+    }
+
+    /**
+     * okhttp 相关的代码都放在这里，只有 protocol 为 http2/h2c 时才会加载这个类。
+     * 如果直接写在外层类中，spring 解析外层类的方法（包括 lambda 生成的方法）时就会因为缺少 okhttp 而失败。
+     */
+    private static final class OkHttpPool {
+
+        private final OkHttpClient client;
+
+        //okhttp 的连接池不区分路由，http2 下一个路由通常只需要一个连接
+        OkHttpPool(HttpClientProperties properties) {
+            client = new OkHttpClient.Builder()
+                    .protocols("h2c".equalsIgnoreCase(properties.getProtocol())
+                            ? Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE)
+                            : Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                    .connectionPool(new ConnectionPool(properties.getMaxPerRoute(), properties.getIdleEvictMs(), TimeUnit.MILLISECONDS))
+                    .connectTimeout(properties.getConnectTimeoutMs(), TimeUnit.MILLISECONDS)
+                    .readTimeout(properties.getReadTimeoutMs(), TimeUnit.MILLISECONDS)
+                    .build();
+        }
+
+        ClientHttpRequestFactory requestFactory() {
+            return new OkHttp3ClientHttpRequestFactory(client);
+        }
+
+        void bindTo(MeterRegistry registry, String pool) {
+            ConnectionPool connectionPool = client.connectionPool();
+            Gauge.builder("http.client.pool.connections", connectionPool, ConnectionPool::connectionCount)
+                    .tag("pool", pool).register(registry);
+            Gauge.builder("http.client.pool.available", connectionPool, ConnectionPool::idleConnectionCount)
+                    .tag("pool", pool).description("空闲的连接数").register(registry);
+        }
+
+        void close() {
+            client.dispatcher().executorService().shutdown();
+            client.connectionPool().evictAll();
+        }
+    }
+}
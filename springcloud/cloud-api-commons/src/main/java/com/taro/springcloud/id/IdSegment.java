@@ -0,0 +1,24 @@
+package com.taro.springcloud.id;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ClassName IdSegment
+ * Author taro
+ * Date 2026/10/18 15:22
+ * Version 1.0
+ */
+
+//对应 id_segment 表的一行，maxId 为已经分配出去的最大 id
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdSegment {
+
+    private String bizTag;
+    private Long maxId;
+    private Integer step;
+
+}
@@ -0,0 +1,136 @@
+package com.taro.springcloud.id;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * ClassName SegmentBuffer
+ * Author taro
+ * Date 2026/10/18 14:20
+ * Version 1.0
+ */
+
+/**
+ * 号段模式的双 buffer，8001/8002 和 8007 共用：每次从 id_segment 表中租用一段连续的 id，在本地用原子计数器分配。
+ * 号段由数据库行锁保证不会重叠，所以多个节点共用一张表也不会拿到相同的 id。
+ * 当前号段用掉 10% 时预取下一段，用完后切换；同一时间最多只有一次申请，预取还没完成时等待它而不是再申请一段。
+ * 申请号段由调用方提供，返回的 future 完成时号段已经提交，同步和非阻塞的数据库访问都可以使用。
+ */
+@Slf4j
+public class SegmentBuffer {
+
+    //当前号段已经用完，调用 refill 后重试
+    public static final long EXHAUSTED = -1;
+
+    private static final double PREFETCH_RATIO = 0.1;
+
+    private final String bizTag;
+
+    private final Supplier<CompletableFuture<IdSegment>> leaser;
+
+    private volatile Segment current;
+
+    //正在申请或已经申请到、还没有切换过去的号段
+    private final AtomicReference<CompletableFuture<Segment>> next = new AtomicReference<>();
+
+    public SegmentBuffer(String bizTag, Supplier<CompletableFuture<IdSegment>> leaser) {
+        this.bizTag = bizTag;
+        this.leaser = leaser;
+    }
+
+    //阻塞到第一个号段申请完成
+    public void init() {
+        current = lease().join();
+    }
+
+    //不会阻塞；号段用完时返回 EXHAUSTED
+    public long tryNextId() {
+        Segment segment = current;
+        long id = segment.cursor.getAndIncrement();
+        if (id > segment.max) {
+            return EXHAUSTED;
+        }
+        //只有恰好拿到 prefetchAt 的那个请求会触发预取
+        if (id == segment.prefetchAt) {
+            nextSegment();
+        }
+        return id;
+    }
+
+    //返回的 future 完成时已经切换到新的号段，申请失败时以异常结束
+    public CompletableFuture<Void> refill() {
+        Segment exhausted = current;
+        //其他请求已经切换过
+        if (exhausted.cursor.get() <= exhausted.max) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Segment> pending = nextSegment();
+        return pending.thenAccept(leased -> switchSegment(exhausted, pending));
+    }
+
+    //多个请求同时用完号段时共用同一次申请
+    private CompletableFuture<Segment> nextSegment() {
+        for (;;) {
+            CompletableFuture<Segment> pending = next.get();
+            if (pending != null) {
+                return pending;
+            }
+            CompletableFuture<Segment> created = new CompletableFuture<>();
+            if (next.compareAndSet(null, created)) {
+                lease().whenComplete((segment, e) -> {
+                    if (e != null) {
+                        log.warn("申请号段失败, bizTag: {}", bizTag, e);
+                        //下一个请求重新申请
+                        next.compareAndSet(created, null);
+                        created.completeExceptionally(e);
+                    } else {
+                        created.complete(segment);
+                    }
+                });
+                return created;
+            }
+        }
+    }
+
+    //其他请求已经切换过时什么也不做
+    private synchronized void switchSegment(Segment exhausted, CompletableFuture<Segment> leased) {
+        if (current == exhausted) {
+            current = leased.join();
+            next.compareAndSet(leased, null);
+        }
+    }
+
+    private CompletableFuture<Segment> lease() {
+        CompletableFuture<IdSegment> leased;
+        try {
+            leased = leaser.get();
+        } catch (RuntimeException e) {
+            leased = new CompletableFuture<>();
+            leased.completeExceptionally(e);
+        }
+        return leased.thenApply(segment -> {
+            long start = segment.getMaxId() - segment.getStep() + 1;
+            log.info("申请号段 bizTag: {}, [{}, {}]", bizTag, start, segment.getMaxId());
+            return new Segment(start, segment.getMaxId());
+        });
+    }
+
+    private static final class Segment {
+
+        private final AtomicLong cursor;
+
+        private final long max;
+
+        private final long prefetchAt;
+
+        Segment(long start, long max) {
+            this.cursor = new AtomicLong(start);
+            this.max = max;
+            this.prefetchAt = start + (long) ((max - start + 1) * PREFETCH_RATIO);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.taro.springcloud.limit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassName AimdLimit
+ * Author taro
+ * Date 2026/10/18 19:15
+ * Version 1.0
+ */
+
+/**
+ * 加性增、乘性减：超时或被下游拒绝时上限乘以 backoffRatio，否则在并发达到上限一半以上时加一。
+ * 比梯度算法简单，但只能在下游已经超时或拒绝后才减小上限。
+ */
+public class AimdLimit implements LimitAlgorithm {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long timeoutNanos;
+
+    private volatile int limit;
+
+    public AimdLimit(ConcurrencyLimitProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(properties.getTimeoutMs());
+        this.limit = properties.getInitialLimit();
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        int current = limit;
+        if (dropped || rttNanos > timeoutNanos) {
+            limit = Math.max(minLimit, (int) (current * backoffRatio));
+        } else if (inFlight * 2 >= current) {
+            limit = Math.min(maxLimit, current + 1);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.taro.springcloud.limit;
+
+/**
+ * ClassName ConcurrencyLimitExceededException
+ * Author taro
+ * Date 2026/10/18 19:20
+ * Version 1.0
+ */
+
+//正在进行的请求达到上限时立即抛出，不等待；不记录堆栈，拒绝的开销很小
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private final String downstream;
+
+    public ConcurrencyLimitExceededException(String downstream, int limit) {
+        super("调用 " + downstream + " 的并发请求已达到上限 " + limit, null, false, false);
+        this.downstream = downstream;
+    }
+
+    public String getDownstream() {
+        return downstream;
+    }
+}
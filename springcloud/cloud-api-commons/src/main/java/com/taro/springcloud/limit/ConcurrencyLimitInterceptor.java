@@ -0,0 +1,55 @@
+package com.taro.springcloud.limit;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * ClassName ConcurrencyLimitInterceptor
+ * Author taro
+ * Date 2026/10/18 19:40
+ * Version 1.0
+ */
+
+/**
+ * RestTemplate 拦截器：超过下游的并发上限时抛出 ConcurrencyLimitExceededException，不发送请求。
+ * 延迟统计到收到响应头为止。在 @LoadBalanced 之前加入时按服务名限制，之后加入时按实例限制。
+ */
+public class ConcurrencyLimitInterceptor implements ClientHttpRequestInterceptor {
+
+    private final ConcurrencyLimiters limiters;
+
+    public ConcurrencyLimitInterceptor(ConcurrencyLimiters limiters) {
+        this.limiters = limiters;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (!limiters.isEnabled()) {
+            return execution.execute(request, body);
+        }
+        ConcurrencyLimiter.Permit permit = limiters.get(ConcurrencyLimiters.downstream(request.getURI())).acquire();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            permit.dropped();
+            throw e;
+        }
+        release(permit, response.getRawStatusCode());
+        return response;
+    }
+
+    static void release(ConcurrencyLimiter.Permit permit, int status) {
+        if (status == 429 || status == 503) {
+            permit.dropped();
+        } else if (status >= 400 && status < 500) {
+            permit.ignore();
+        } else {
+            permit.success();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.taro.springcloud.limit;
+
+import lombok.Data;
+
+/**
+ * ClassName ConcurrencyLimitProperties
+ * Author taro
+ * Date 2026/10/18 19:00
+ * Version 1.0
+ */
+
+//调用下游服务的自适应并发上限配置，消费者模块绑定到 consumer.limit
+@Data
+public class ConcurrencyLimitProperties {
+
+    //关闭时拦截器直接放行
+    private boolean enabled = false;
+
+    //gradient：根据延迟相对长期基线的变化调整上限；aimd：超时或被下游拒绝时按比例减小，否则加一
+    private String algorithm = "gradient";
+
+    private int initialLimit = 20;
+
+    private int minLimit = 2;
+
+    private int maxLimit = 200;
+
+    //gradient：每次调整向新值靠近的比例
+    private double smoothing = 0.2;
+
+    //gradient：延迟超过最小延迟的 tolerance 倍才开始减小上限
+    private double tolerance = 1.5;
+
+    //gradient：每隔多少个样本用这段时间内的最小延迟更新基线
+    private int rttWindow = 500;
+
+    //aimd：减小时乘以的比例
+    private double backoffRatio = 0.9;
+
+    //aimd：超过这个延迟按被拒绝处理
+    private long timeoutMs = 1000;
+}
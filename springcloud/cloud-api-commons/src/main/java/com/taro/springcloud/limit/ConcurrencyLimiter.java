@@ -0,0 +1,99 @@
+package com.taro.springcloud.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ClassName ConcurrencyLimiter
+ * Author taro
+ * Date 2026/10/18 19:25
+ * Version 1.0
+ */
+
+/**
+ * 一个下游服务的并发上限：acquire 成功后必须调用 Permit 的 success / dropped / ignore 之一释放。
+ * 上限由 LimitAlgorithm 根据释放时的延迟调整。
+ */
+public class ConcurrencyLimiter {
+
+    private final String downstream;
+
+    private final LimitAlgorithm algorithm;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LongAdder rejected = new LongAdder();
+
+    public ConcurrencyLimiter(String downstream, LimitAlgorithm algorithm) {
+        this.downstream = downstream;
+        this.algorithm = algorithm;
+    }
+
+    //达到上限时抛出 ConcurrencyLimitExceededException
+    public Permit acquire() {
+        for (;;) {
+            int current = inFlight.get();
+            int limit = algorithm.getLimit();
+            if (current >= limit) {
+                rejected.increment();
+                throw new ConcurrencyLimitExceededException(downstream, limit);
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(current + 1);
+            }
+        }
+    }
+
+    public String getDownstream() {
+        return downstream;
+    }
+
+    public int getLimit() {
+        return algorithm.getLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public final class Permit {
+
+        private final long start = System.nanoTime();
+
+        private final int inFlightAtStart;
+
+        private final AtomicInteger released = new AtomicInteger();
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        public void success() {
+            release(true, false);
+        }
+
+        //超时、连接失败或下游返回 429/503
+        public void dropped() {
+            release(true, true);
+        }
+
+        //和下游容量无关的结束（如 4xx），只释放不调整上限
+        public void ignore() {
+            release(false, false);
+        }
+
+        private void release(boolean sample, boolean dropped) {
+            if (!released.compareAndSet(0, 1)) {
+                return;
+            }
+            inFlight.decrementAndGet();
+            if (sample) {
+                algorithm.onSample(System.nanoTime() - start, inFlightAtStart, dropped);
+            }
+        }
+    }
+}
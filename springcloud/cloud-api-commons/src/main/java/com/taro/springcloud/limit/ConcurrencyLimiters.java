@@ -0,0 +1,83 @@
+package com.taro.springcloud.limit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ClassName ConcurrencyLimiters
+ * Author taro
+ * Date 2026/10/18 19:30
+ * Version 1.0
+ */
+
+/**
+ * 按下游（服务名或 host:port）分别维护 ConcurrencyLimiter，RestTemplate 拦截器和 feign Client 共用。
+ * 作为 MeterBinder 注册成 bean 后，每个下游输出 client.concurrency.limit / inflight / rejected 指标。
+ */
+public class ConcurrencyLimiters implements MeterBinder {
+
+    private final ConcurrencyLimitProperties properties;
+
+    private final ConcurrentHashMap<String, ConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry registry;
+
+    public ConcurrencyLimiters(ConcurrencyLimitProperties properties) {
+        if (!"gradient".equalsIgnoreCase(properties.getAlgorithm()) && !"aimd".equalsIgnoreCase(properties.getAlgorithm())) {
+            throw new IllegalArgumentException("不支持的 algorithm: " + properties.getAlgorithm());
+        }
+        this.properties = properties;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public ConcurrencyLimiter get(String downstream) {
+        ConcurrencyLimiter limiter = limiters.get(downstream);
+        if (limiter != null) {
+            return limiter;
+        }
+        ConcurrencyLimiter created = new ConcurrencyLimiter(downstream, newAlgorithm());
+        limiter = limiters.putIfAbsent(downstream, created);
+        if (limiter != null) {
+            return limiter;
+        }
+        MeterRegistry current = registry;
+        if (current != null) {
+            register(current, created);
+        }
+        return created;
+    }
+
+    //@LoadBalanced 的 RestTemplate 和 feign 的 host 就是服务名
+    public static String downstream(URI uri) {
+        return uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort();
+    }
+
+    private LimitAlgorithm newAlgorithm() {
+        return "aimd".equalsIgnoreCase(properties.getAlgorithm()) ? new AimdLimit(properties) : new GradientLimit(properties);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        //先发布 registry 再遍历，和 get 中先放入再读取 registry 配合，不会漏掉；重复注册同一个指标没有影响
+        this.registry = registry;
+        limiters.values().forEach(limiter -> register(registry, limiter));
+    }
+
+    private static void register(MeterRegistry registry, ConcurrencyLimiter limiter) {
+        String downstream = limiter.getDownstream();
+        Gauge.builder("client.concurrency.limit", limiter, ConcurrencyLimiter::getLimit)
+                .tag("downstream", downstream).description("当前的并发上限").register(registry);
+        Gauge.builder("client.concurrency.inflight", limiter, ConcurrencyLimiter::getInFlight)
+                .tag("downstream", downstream).description("正在进行的请求数").register(registry);
+        FunctionCounter.builder("client.concurrency.rejected", limiter, ConcurrencyLimiter::getRejected)
+                .tag("downstream", downstream).description("超过上限被拒绝的请求数").register(registry);
+    }
+}
@@ -0,0 +1,71 @@
+package com.taro.springcloud.limit;
+
+/**
+ * ClassName GradientLimit
+ * Author taro
+ * Date 2026/10/18 19:10
+ * Version 1.0
+ */
+
+/**
+ * 梯度算法：以最近的最小延迟作为无排队时的基线，每个样本计算 gradient = tolerance * minRtt / rtt（限制在 0.5~1）。
+ * 下游开始排队时 rtt 上升，gradient 小于 1，上限随之减小；延迟正常时 gradient 为 1，上限按 sqrt(limit) 增长。
+ * 基线每 rttWindow 个样本更新一次，下游整体变慢（如扩容到更远的机房）后基线也会跟着上升。
+ * 正在进行的请求不到上限一半时不调整，避免空闲时上限无限增长。
+ */
+public class GradientLimit implements LimitAlgorithm {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final int rttWindow;
+
+    private volatile double limit;
+
+    //以下字段在 synchronized 中访问
+    private long minRtt = Long.MAX_VALUE;
+    private long windowMinRtt = Long.MAX_VALUE;
+    private int windowSamples;
+
+    public GradientLimit(ConcurrencyLimitProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.smoothing = properties.getSmoothing();
+        this.tolerance = properties.getTolerance();
+        this.rttWindow = Math.max(1, properties.getRttWindow());
+        this.limit = properties.getInitialLimit();
+    }
+
+    @Override
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    @Override
+    public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+        long rtt = Math.max(1, rttNanos);
+        if (!dropped) {
+            windowMinRtt = Math.min(windowMinRtt, rtt);
+        }
+        if (++windowSamples >= rttWindow && windowMinRtt != Long.MAX_VALUE) {
+            minRtt = windowMinRtt;
+            windowMinRtt = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+        long baseline = Math.min(minRtt, windowMinRtt);
+        if (baseline == Long.MAX_VALUE) {
+            return;
+        }
+
+        double current = limit;
+        if (!dropped && inFlight < current / 2) {
+            return;
+        }
+        double gradient = dropped ? 0.5 : Math.max(0.5, Math.min(1.0, tolerance * baseline / rtt));
+        double queueSize = Math.sqrt(current);
+        double next = current * gradient + queueSize;
+        next = current * (1 - smoothing) + next * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
@@ -0,0 +1,21 @@
+package com.taro.springcloud.limit;
+
+/**
+ * ClassName LimitAlgorithm
+ * Author taro
+ * Date 2026/10/18 19:05
+ * Version 1.0
+ */
+
+//根据每个请求的延迟调整并发上限，每个下游一个实例，onSample 可能被多个线程同时调用
+public interface LimitAlgorithm {
+
+    int getLimit();
+
+    /**
+     * @param rttNanos 请求耗时
+     * @param inFlight 请求开始时（包括它自己）正在进行的请求数
+     * @param dropped  超时、连接失败或下游返回 429/503
+     */
+    void onSample(long rttNanos, int inFlight, boolean dropped);
+}
@@ -0,0 +1,52 @@
+package com.taro.springcloud.limit;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * ClassName LimitedFeignClient
+ * Author taro
+ * Date 2026/10/18 19:45
+ * Version 1.0
+ */
+
+/**
+ * 包装 feign 的 Client，和 ConcurrencyLimitInterceptor 一样按 url 的 host 限制并发。
+ * RequestInterceptor 看不到响应和耗时，所以包装 Client 而不是使用 RequestInterceptor。
+ */
+public class LimitedFeignClient implements Client {
+
+    private final Client delegate;
+
+    private final ConcurrencyLimiters limiters;
+
+    public LimitedFeignClient(Client delegate, ConcurrencyLimiters limiters) {
+        this.delegate = delegate;
+        this.limiters = limiters;
+    }
+
+    public Client getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (!limiters.isEnabled()) {
+            return delegate.execute(request, options);
+        }
+        ConcurrencyLimiter.Permit permit = limiters.get(ConcurrencyLimiters.downstream(URI.create(request.url()))).acquire();
+        Response response;
+        try {
+            response = delegate.execute(request, options);
+        } catch (IOException | RuntimeException e) {
+            permit.dropped();
+            throw e;
+        }
+        ConcurrencyLimitInterceptor.release(permit, response.status());
+        return response;
+    }
+}
@@ -0,0 +1,33 @@
+package com.taro.springcloud.limit;
+
+import feign.Client;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * ClassName LimitedFeignClientPostProcessor
+ * Author taro
+ * Date 2026/10/18 19:50
+ * Version 1.0
+ */
+
+/**
+ * 把容器中的 feign Client（使用 ribbon 时是 LoadBalancerFeignClient）包装成 LimitedFeignClient，
+ * 这样不需要自己重新创建 Client。需要用 static @Bean 方法注册。
+ */
+public class LimitedFeignClientPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<ConcurrencyLimiters> limiters;
+
+    public LimitedFeignClientPostProcessor(ObjectProvider<ConcurrencyLimiters> limiters) {
+        this.limiters = limiters;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof Client && !(bean instanceof LimitedFeignClient)) {
+            return new LimitedFeignClient((Client) bean, limiters.getObject());
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,206 @@
+package com.taro.springcloud.store;
+
+import com.taro.springcloud.entities.Payment;
+import com.taro.springcloud.utils.SerialCodec;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * ClassName ConcurrentPaymentStore
+ * Author taro
+ * Date 2026/10/18 22:15
+ * Version 1.0
+ */
+
+/**
+ * long 为 key 的开放寻址哈希表，按 id 的哈希分成多个段，每段一把 StampedLock：
+ * 写操作持有写锁，读操作先乐观读，期间有写入再退回读锁。
+ * 每个条目只占几个基本类型数组中的一格，不创建 Long、Payment 和链表节点，
+ * 32 位小写十六进制流水号保存为两个 long，其他格式才保存 String。
+ */
+public class ConcurrentPaymentStore implements PaymentStore {
+
+    private static final int SEGMENT_BITS = 6;
+
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    //槽位状态
+    private static final byte EMPTY = 0;
+    private static final byte COMPACT = 1;
+    private static final byte TEXT = 2;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    public ConcurrentPaymentStore() {
+        this(1024);
+    }
+
+    public ConcurrentPaymentStore(int expectedSize) {
+        int perSegment = LongHashing.tableSizeFor((int) Math.min(Integer.MAX_VALUE, (long) (expectedSize / SEGMENTS / LOAD_FACTOR) + 1));
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    @Override
+    public Payment get(long id) {
+        long hash = LongHashing.mix(id);
+        return segments[(int) (hash >>> (64 - SEGMENT_BITS))].get(id, hash);
+    }
+
+    @Override
+    public void put(Payment payment) {
+        if (payment == null || payment.getId() == null) {
+            throw new IllegalArgumentException("payment 和 id 不能为空");
+        }
+        long id = payment.getId();
+        long hash = LongHashing.mix(id);
+        segments[(int) (hash >>> (64 - SEGMENT_BITS))].put(id, hash, payment.getSerial());
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+
+    //同一段的数组放在一个对象里整体替换，乐观读拿到的总是同一次扩容的数组
+    private static final class Table {
+
+        final long[] keys;
+        final long[] highs;
+        final long[] lows;
+        final byte[] states;
+        //非压缩格式的流水号，大多数槽位为 null
+        final String[] texts;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            highs = new long[capacity];
+            lows = new long[capacity];
+            states = new byte[capacity];
+            texts = new String[capacity];
+        }
+    }
+
+    private static final class Segment {
+
+        private final StampedLock lock = new StampedLock();
+
+        private Table table;
+
+        private int size;
+
+        private int threshold;
+
+        Segment(int capacity) {
+            table = new Table(capacity);
+            threshold = (int) (capacity * LOAD_FACTOR);
+        }
+
+        Payment get(long id, long hash) {
+            long stamp = lock.tryOptimisticRead();
+            Payment payment = find(table, id, hash);
+            if (lock.validate(stamp)) {
+                return payment;
+            }
+            stamp = lock.readLock();
+            try {
+                return find(table, id, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        //乐观读时数组可能正在被修改，最多探测 capacity 次，读到的结果由调用方校验
+        private static Payment find(Table table, long id, long hash) {
+            int mask = table.keys.length - 1;
+            int index = (int) hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                byte state = table.states[index];
+                if (state == EMPTY) {
+                    return null;
+                }
+                if (table.keys[index] == id) {
+                    String serial = state == COMPACT
+                            ? SerialCodec.toHex(table.highs[index], table.lows[index])
+                            : table.texts[index];
+                    return new Payment(id, serial);
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+
+        void put(long id, long hash, String serial) {
+            long stamp = lock.writeLock();
+            try {
+                if (insert(table, id, hash, serial) && ++size > threshold) {
+                    resize();
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        //返回 true 表示新增了一个条目
+        private static boolean insert(Table table, long id, long hash, String serial) {
+            int mask = table.keys.length - 1;
+            int index = (int) hash & mask;
+            while (table.states[index] != EMPTY && table.keys[index] != id) {
+                index = (index + 1) & mask;
+            }
+            boolean added = table.states[index] == EMPTY;
+            table.keys[index] = id;
+            if (SerialCodec.isCompactHex(serial)) {
+                table.highs[index] = SerialCodec.highOf(serial);
+                table.lows[index] = SerialCodec.lowOf(serial);
+                table.texts[index] = null;
+                table.states[index] = COMPACT;
+            } else {
+                table.highs[index] = 0;
+                table.lows[index] = 0;
+                table.texts[index] = serial;
+                table.states[index] = TEXT;
+            }
+            return added;
+        }
+
+        private void resize() {
+            Table old = table;
+            Table resized = new Table(old.keys.length << 1);
+            int mask = resized.keys.length - 1;
+            for (int i = 0; i < old.keys.length; i++) {
+                if (old.states[i] == EMPTY) {
+                    continue;
+                }
+                int index = (int) LongHashing.mix(old.keys[i]) & mask;
+                while (resized.states[index] != EMPTY) {
+                    index = (index + 1) & mask;
+                }
+                resized.keys[index] = old.keys[i];
+                resized.highs[index] = old.highs[i];
+                resized.lows[index] = old.lows[i];
+                resized.texts[index] = old.texts[i];
+                resized.states[index] = old.states[i];
+            }
+            table = resized;
+            threshold = (int) (resized.keys.length * LOAD_FACTOR);
+        }
+
+        int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.taro.springcloud.store;
+
+/**
+ * ClassName LongHashing
+ * Author taro
+ * Date 2026/10/18 23:05
+ * Version 1.0
+ */
+
+//开放寻址表共用的哈希和容量计算
+final class LongHashing {
+
+    private LongHashing() {
+    }
+
+    //MurmurHash3 的 fmix64，连续 id 也能均匀分布
+    static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+
+    //不小于 size 的 2 的幂，最小 16，最大 2^30
+    static int tableSizeFor(int size) {
+        int n = Integer.highestOneBit(Math.max(size, 16) - 1) << 1;
+        return n < 0 ? 1 << 30 : n;
+    }
+}
@@ -0,0 +1,307 @@
+package com.taro.springcloud.store;
+
+import com.taro.springcloud.entities.Payment;
+import com.taro.springcloud.utils.SerialCodec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * ClassName MappedPaymentStore
+ * Author taro
+ * Date 2026/10/18 23:00
+ * Version 1.0
+ */
+
+/**
+ * payment 以定长记录追加写入内存映射文件，重启后顺序扫描文件重建索引即可提供读服务。
+ * 记录格式（64 字节）：
+ * [0, 8) id，[8] 状态，[9] 文本流水号字节数，[16, 32) 压缩流水号的两个 long，或 [16, 64) 文本流水号。
+ * 状态字节最后写入，为 0 表示文件在这里结束（包括写到一半进程退出的记录）。
+ * 同一个 id 再次写入时追加新记录，索引指向最新的一条。
+ * 索引只保存记录序号，id 和流水号都从文件中读取，堆上不保存第二份数据。
+ */
+public class MappedPaymentStore implements PaymentStore, Closeable {
+
+    private static final int MAGIC = 0x50415931;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 64;
+
+    static final int RECORD_SIZE = 64;
+
+    private static final int MAX_TEXT_BYTES = RECORD_SIZE - 16;
+
+    //每段映射 64 MB，是记录长度的整数倍，记录不会跨段
+    private static final int CHUNK_BITS = 26;
+
+    private static final long CHUNK_SIZE = 1L << CHUNK_BITS;
+
+    private static final byte EMPTY = 0;
+    private static final byte COMPACT = 1;
+    private static final byte TEXT = 2;
+    private static final byte NO_SERIAL = 3;
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private final FileChannel channel;
+
+    private final StampedLock lock = new StampedLock();
+
+    //扩容时先把新数组填满再整体替换，volatile 保证乐观读拿到的数组是完整的
+    private volatile MappedByteBuffer[] chunks = new MappedByteBuffer[0];
+
+    //开放寻址表，值为记录序号 + 1，0 表示空槽
+    private volatile int[] index;
+
+    private int records;
+
+    private int size;
+
+    public MappedPaymentStore(Path file, int expectedSize) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ensureMapped(HEADER_SIZE);
+            ByteBuffer header = chunks[0];
+            if (header.getInt(0) == 0) {
+                header.putInt(4, VERSION);
+                header.putInt(0, MAGIC);
+            } else if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IllegalStateException("不是 payment 存储文件或版本不兼容: " + file);
+            }
+            index = new int[LongHashing.tableSizeFor((int) Math.min(1 << 30, (long) (expectedSize / LOAD_FACTOR) + 1))];
+            load();
+        } catch (IOException e) {
+            throw new UncheckedIOException("打开 payment 存储文件失败: " + file, e);
+        }
+    }
+
+    //顺序扫描已有记录重建索引
+    private void load() throws IOException {
+        long fileSize = channel.size();
+        ensureMapped(fileSize);
+        while (offsetOf(records) + RECORD_SIZE <= fileSize) {
+            long offset = offsetOf(records);
+            if (chunkOf(offset).get(positionOf(offset) + 8) == EMPTY) {
+                break;
+            }
+            index(records++);
+        }
+    }
+
+    @Override
+    public Payment get(long id) {
+        long stamp = lock.tryOptimisticRead();
+        try {
+            Payment payment = find(id);
+            if (lock.validate(stamp)) {
+                return payment;
+            }
+        } catch (RuntimeException e) {
+            //乐观读碰到写到一半的数据，改用读锁重读，真正的错误会在下面再次抛出
+        }
+        stamp = lock.readLock();
+        try {
+            return find(id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //乐观读时索引可能正在被修改，最多探测 capacity 次，读到的结果由调用方校验
+    private Payment find(long id) {
+        int[] table = index;
+        MappedByteBuffer[] mapped = chunks;
+        int mask = table.length - 1;
+        int slot = (int) LongHashing.mix(id) & mask;
+        for (int probes = 0; probes <= mask; probes++) {
+            int record = table[slot] - 1;
+            if (record < 0) {
+                return null;
+            }
+            long offset = offsetOf(record);
+            int chunk = (int) (offset >>> CHUNK_BITS);
+            if (chunk >= mapped.length) {
+                return null;
+            }
+            ByteBuffer buffer = mapped[chunk];
+            int position = positionOf(offset);
+            if (buffer.getLong(position) == id) {
+                return new Payment(id, readSerial(buffer, position));
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private static String readSerial(ByteBuffer buffer, int position) {
+        switch (buffer.get(position + 8)) {
+            case COMPACT:
+                return SerialCodec.toHex(buffer.getLong(position + 16), buffer.getLong(position + 24));
+            case TEXT:
+                byte[] bytes = new byte[buffer.get(position + 9) & 0xff];
+                for (int i = 0; i < bytes.length; i++) {
+                    bytes[i] = buffer.get(position + 16 + i);
+                }
+                return new String(bytes, StandardCharsets.UTF_8);
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public void put(Payment payment) {
+        if (payment == null || payment.getId() == null) {
+            throw new IllegalArgumentException("payment 和 id 不能为空");
+        }
+        String serial = payment.getSerial();
+        byte[] text = null;
+        if (serial != null && !SerialCodec.isCompactHex(serial)) {
+            text = serial.getBytes(StandardCharsets.UTF_8);
+            if (text.length > MAX_TEXT_BYTES) {
+                throw new IllegalArgumentException("流水号超过 " + MAX_TEXT_BYTES + " 字节: " + serial);
+            }
+        }
+        long stamp = lock.writeLock();
+        try {
+            append(payment.getId(), serial, text);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void append(long id, String serial, byte[] text) {
+        long offset = offsetOf(records);
+        ensureMapped(offset + RECORD_SIZE);
+        ByteBuffer buffer = chunkOf(offset);
+        int position = positionOf(offset);
+        buffer.putLong(position, id);
+        byte state;
+        if (serial == null) {
+            state = NO_SERIAL;
+        } else if (text == null) {
+            buffer.putLong(position + 16, SerialCodec.highOf(serial));
+            buffer.putLong(position + 24, SerialCodec.lowOf(serial));
+            state = COMPACT;
+        } else {
+            buffer.put(position + 9, (byte) text.length);
+            for (int i = 0; i < text.length; i++) {
+                buffer.put(position + 16 + i, text[i]);
+            }
+            state = TEXT;
+        }
+        buffer.put(position + 8, state);
+        index(records++);
+    }
+
+    //把记录加入索引，同一个 id 的旧记录被替换
+    private void index(int record) {
+        long offset = offsetOf(record);
+        long id = chunkOf(offset).getLong(positionOf(offset));
+        int[] table = index;
+        int mask = table.length - 1;
+        int slot = (int) LongHashing.mix(id) & mask;
+        while (table[slot] != 0) {
+            long existing = offsetOf(table[slot] - 1);
+            if (chunkOf(existing).getLong(positionOf(existing)) == id) {
+                table[slot] = record + 1;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = record + 1;
+        if (++size > table.length * LOAD_FACTOR) {
+            resize();
+        }
+    }
+
+    private void resize() {
+        int[] table = index;
+        int[] resized = new int[table.length << 1];
+        int mask = resized.length - 1;
+        for (int value : table) {
+            if (value == 0) {
+                continue;
+            }
+            long offset = offsetOf(value - 1);
+            int slot = (int) LongHashing.mix(chunkOf(offset).getLong(positionOf(offset))) & mask;
+            while (resized[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            resized[slot] = value;
+        }
+        index = resized;
+    }
+
+    //按段扩展映射，映射超出文件长度时文件会自动变长
+    private void ensureMapped(long length) {
+        int needed = (int) ((length + CHUNK_SIZE - 1) >>> CHUNK_BITS);
+        MappedByteBuffer[] mapped = chunks;
+        if (needed <= mapped.length) {
+            return;
+        }
+        MappedByteBuffer[] grown = Arrays.copyOf(mapped, needed);
+        try {
+            for (int i = mapped.length; i < needed; i++) {
+                grown[i] = channel.map(FileChannel.MapMode.READ_WRITE, i * CHUNK_SIZE, CHUNK_SIZE);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("映射 payment 存储文件失败", e);
+        }
+        chunks = grown;
+    }
+
+    private ByteBuffer chunkOf(long offset) {
+        return chunks[(int) (offset >>> CHUNK_BITS)];
+    }
+
+    private static int positionOf(long offset) {
+        return (int) (offset & (CHUNK_SIZE - 1));
+    }
+
+    private static long offsetOf(int record) {
+        return HEADER_SIZE + (long) record * RECORD_SIZE;
+    }
+
+    @Override
+    public long size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //把脏页刷到磁盘，进程崩溃不会丢数据，机器掉电可能丢失最后一次 flush 之后的写入
+    public void flush() {
+        long stamp = lock.readLock();
+        try {
+            for (MappedByteBuffer chunk : chunks) {
+                chunk.force();
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
@@ -0,0 +1,28 @@
+package com.taro.springcloud.store;
+
+import com.taro.springcloud.entities.Payment;
+
+import java.util.Collection;
+
+/**
+ * ClassName PaymentStore
+ * Author taro
+ * Date 2026/10/18 22:10
+ * Version 1.0
+ */
+
+//以 id 为 key 的 payment 内存存储，实现类需要支持并发读写
+public interface PaymentStore {
+
+    //不存在时返回 null
+    Payment get(long id);
+
+    //id 已存在时覆盖
+    void put(Payment payment);
+
+    default void putAll(Collection<Payment> payments) {
+        payments.forEach(this::put);
+    }
+
+    long size();
+}
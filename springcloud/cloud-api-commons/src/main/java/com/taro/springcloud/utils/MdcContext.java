@@ -0,0 +1,44 @@
+package com.taro.springcloud.utils;
+
+import org.slf4j.MDC;
+
+import java.util.Map;
+
+/**
+ * ClassName MdcContext
+ * Author taro
+ * Date 2026/10/18 23:40
+ * Version 1.0
+ */
+
+/**
+ * 没有 sleuth 的服务在线程池中执行任务时，用它把提交线程的 MDC 带到工作线程。
+ * 有 sleuth 时用 CurrentTraceContext::wrap，它恢复 trace 上下文的同时也会更新 MDC。
+ */
+public final class MdcContext {
+
+    private MdcContext() {
+    }
+
+    //在提交线程上调用，复制当前的 MDC；任务结束后恢复工作线程原来的 MDC
+    public static Runnable wrap(Runnable task) {
+        Map<String, String> context = MDC.getCopyOfContextMap();
+        return () -> {
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            set(context);
+            try {
+                task.run();
+            } finally {
+                set(previous);
+            }
+        };
+    }
+
+    private static void set(Map<String, String> context) {
+        if (context == null) {
+            MDC.clear();
+        } else {
+            MDC.setContextMap(context);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.taro.springcloud.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ClassName ScalableBloomFilter
+ * Author taro
+ * Date 2026/10/18 21:10
+ * Version 1.0
+ */
+
+/**
+ * long 类型 key 的可扩容布隆过滤器，线程安全。
+ * 当前子过滤器装满后新建一个容量翻倍、误判率减半的子过滤器，
+ * 总误判率不超过 fpp / (1 - 0.5) = 2 * fpp，不需要预先知道数据量。
+ */
+public class ScalableBloomFilter {
+
+    private static final int GROWTH = 2;
+
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final double fpp;
+
+    private volatile Filter[] filters;
+
+    public ScalableBloomFilter(long initialCapacity, double fpp) {
+        if (initialCapacity <= 0 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("initialCapacity 必须大于 0，fpp 必须在 (0, 1) 之间");
+        }
+        this.fpp = fpp;
+        this.filters = new Filter[]{new Filter(initialCapacity, fpp)};
+    }
+
+    public void put(long key) {
+        long h1 = mix(key);
+        long h2 = mix(h1);
+        Filter[] current = filters;
+        for (Filter filter : current) {
+            if (filter.mightContain(h1, h2)) {
+                return;
+            }
+        }
+        Filter last = current[current.length - 1];
+        if (last.count.get() >= last.capacity) {
+            last = grow(last);
+        }
+        last.put(h1, h2);
+    }
+
+    public boolean mightContain(long key) {
+        long h1 = mix(key);
+        long h2 = mix(h1);
+        for (Filter filter : filters) {
+            if (filter.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //按各子过滤器当前的填充量估算的整体误判率
+    public double expectedFpp() {
+        double notFalsePositive = 1;
+        for (Filter filter : filters) {
+            notFalsePositive *= 1 - filter.expectedFpp();
+        }
+        return 1 - notFalsePositive;
+    }
+
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Filter filter : filters) {
+            bytes += filter.bits.length() * 8L;
+        }
+        return bytes;
+    }
+
+    //近似的插入数量（误判为已存在的 key 不计入）
+    public long count() {
+        long count = 0;
+        for (Filter filter : filters) {
+            count += filter.count.get();
+        }
+        return count;
+    }
+
+    public int filterCount() {
+        return filters.length;
+    }
+
+    private synchronized Filter grow(Filter full) {
+        Filter[] current = filters;
+        Filter last = current[current.length - 1];
+        if (last != full) {
+            return last;
+        }
+        Filter[] next = new Filter[current.length + 1];
+        System.arraycopy(current, 0, next, 0, current.length);
+        next[current.length] = new Filter(last.capacity * GROWTH, fpp * Math.pow(TIGHTENING_RATIO, current.length));
+        filters = next;
+        return next[current.length];
+    }
+
+    //splitmix64 的混淆函数，保证连续的 id 也能均匀分布
+    private static long mix(long key) {
+        long z = key + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Filter {
+
+        private final long capacity;
+
+        private final int hashFunctions;
+
+        private final long bitSize;
+
+        private final AtomicLongArray bits;
+
+        private final AtomicLong count = new AtomicLong();
+
+        Filter(long capacity, double fpp) {
+            this.capacity = capacity;
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            long words = Math.max(1, (optimalBits + 63) >>> 6);
+            this.bits = new AtomicLongArray(Math.toIntExact(words));
+            this.bitSize = words << 6;
+            this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / capacity * Math.log(2)));
+        }
+
+        //双重哈希：第 i 个位置为 h1 + i * h2
+        void put(long h1, long h2) {
+            boolean changed = false;
+            for (int i = 1; i <= hashFunctions; i++) {
+                changed |= setBit(((h1 + i * h2) & Long.MAX_VALUE) % bitSize);
+            }
+            if (changed) {
+                count.incrementAndGet();
+            }
+        }
+
+        boolean mightContain(long h1, long h2) {
+            for (int i = 1; i <= hashFunctions; i++) {
+                long index = ((h1 + i * h2) & Long.MAX_VALUE) % bitSize;
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double expectedFpp() {
+            return Math.pow(1 - Math.exp(-(double) hashFunctions * count.get() / bitSize), hashFunctions);
+        }
+
+        private boolean setBit(long index) {
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            for (;;) {
+                long current = bits.get(word);
+                if ((current & mask) != 0) {
+                    return false;
+                }
+                if (bits.compareAndSet(word, current, current | mask)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
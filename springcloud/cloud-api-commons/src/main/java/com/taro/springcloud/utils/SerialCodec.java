@@ -0,0 +1,104 @@
+package com.taro.springcloud.utils;
+
+/**
+ * ClassName SerialCodec
+ * Author taro
+ * Date 2026/10/18 17:10
+ * Version 1.0
+ */
+
+//128 位流水号在十六进制字符串、两个 long、16 字节之间的转换
+public final class SerialCodec {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    //Crockford Base32，字符按 ASCII 升序排列，编码后仍然可以按字符串排序
+    private static final char[] BASE32 = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    public static final int HEX_LENGTH = 32;
+
+    public static final int BYTE_LENGTH = 16;
+
+    private SerialCodec() {
+    }
+
+    //只有 32 位小写十六进制才能无损压缩，大写或其他格式需要原样保存
+    public static boolean isCompactHex(String serial) {
+        if (serial == null || serial.length() != HEX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < HEX_LENGTH; i++) {
+            char c = serial.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static long highOf(String hex) {
+        return parseHex(hex, 0);
+    }
+
+    public static long lowOf(String hex) {
+        return parseHex(hex, 16);
+    }
+
+    public static String toHex(long high, long low) {
+        char[] chars = new char[HEX_LENGTH];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = HEX[(int) (high & 0xf)];
+            chars[i + 16] = HEX[(int) (low & 0xf)];
+            high >>>= 4;
+            low >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    public static String toBase32(long high, long low) {
+        char[] chars = new char[26];
+        for (int i = 25; i >= 0; i--) {
+            chars[i] = BASE32[(int) (low & 0x1f)];
+            low = (low >>> 5) | (high << 59);
+            high >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    public static byte[] toBytes(String hex) {
+        byte[] bytes = new byte[BYTE_LENGTH];
+        putLong(bytes, 0, highOf(hex));
+        putLong(bytes, 8, lowOf(hex));
+        return bytes;
+    }
+
+    public static String fromBytes(byte[] bytes) {
+        if (bytes.length != BYTE_LENGTH) {
+            throw new IllegalArgumentException("流水号必须是 16 字节，实际为 " + bytes.length);
+        }
+        return toHex(getLong(bytes, 0), getLong(bytes, 8));
+    }
+
+    private static long parseHex(String hex, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 16; i++) {
+            value = value << 4 | Character.digit(hex.charAt(i), 16);
+        }
+        return value;
+    }
+
+    private static void putLong(byte[] bytes, int offset, long value) {
+        for (int i = offset + 7; i >= offset; i--) {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static long getLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = value << 8 | (bytes[i] & 0xff);
+        }
+        return value;
+    }
+}
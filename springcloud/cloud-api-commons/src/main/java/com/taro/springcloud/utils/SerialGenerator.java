@@ -0,0 +1,72 @@
+package com.taro.springcloud.utils;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ClassName SerialGenerator
+ * Author taro
+ * Date 2026/10/18 16:30
+ * Version 1.0
+ */
+
+/**
+ * 按时间递增的 128 位流水号生成器。
+ * 高 64 位：48 位毫秒时间戳 + 16 位线程内序号；低 64 位：32 位进程随机数 + 32 位线程编号。
+ * 每个线程只修改自己的状态，生成时不加锁，也不经过共享的 SecureRandom。
+ * 同一线程同一毫秒内超过 65536 个时向后借用时间戳，保证不重复且单调递增。
+ */
+public final class SerialGenerator {
+
+    private static final int SEQUENCE_BITS = 16;
+
+    private static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+
+    //进程启动时随机生成一次，用于区分不同节点
+    private static final long NODE = new SecureRandom().nextInt() & 0xffffffffL;
+
+    private static final AtomicInteger THREAD_SLOTS = new AtomicInteger();
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    private SerialGenerator() {
+    }
+
+    //32 位小写十六进制，与 IdUtil.simpleUUID() 的长度一致
+    public static String nextHex() {
+        State state = STATE.get();
+        return SerialCodec.toHex(state.nextHigh(), state.low);
+    }
+
+    //26 位 Crockford Base32
+    public static String nextCompact() {
+        State state = STATE.get();
+        return SerialCodec.toBase32(state.nextHigh(), state.low);
+    }
+
+    //从流水号的高 64 位取出生成时的毫秒时间戳
+    public static long timestampOf(long high) {
+        return high >>> SEQUENCE_BITS;
+    }
+
+    private static final class State {
+
+        private final long low = NODE << 32 | (THREAD_SLOTS.getAndIncrement() & 0xffffffffL);
+
+        private long lastMillis;
+
+        private int sequence;
+
+        private long nextHigh() {
+            long now = System.currentTimeMillis();
+            if (now > lastMillis) {
+                lastMillis = now;
+                sequence = 0;
+            } else if (++sequence > MAX_SEQUENCE) {
+                lastMillis++;
+                sequence = 0;
+            }
+            return lastMillis << SEQUENCE_BITS | sequence;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.taro.springcloud.benchmark;
+
+import com.taro.springcloud.lb.ConsistentHashLoadBalancer;
+import com.taro.springcloud.lb.MyLBImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassName ConsistentHashBenchmark
+ * Author taro
+ * Date 2026/10/18 23:58
+ * Version 1.0
+ */
+
+/**
+ * 一次选择的开销：ConsistentHashLoadBalancer 的 instance + onRequestEnd 和默认的轮询 MyLBImpl 对比。
+ * 哈希的开销主要是环上的二分查找，随 实例数 * virtual-nodes 对数增长。分布和缓存命中率见 ConsistentHashSimulation。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ConsistentHashBenchmark {
+
+    private static final int KEYS = 1 << 16;
+
+    @Param({"3", "10", "50"})
+    private int instanceCount;
+
+    @Param({"160"})
+    private int virtualNodes;
+
+    private ServiceInstance[] instances;
+
+    private ConsistentHashLoadBalancer hash;
+
+    private MyLBImpl roundRobin;
+
+    private long[] keys;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        instances = instances(instanceCount);
+        hash = new ConsistentHashLoadBalancer(virtualNodes, 1.25, new SimpleMeterRegistry());
+        roundRobin = new MyLBImpl();
+        SplittableRandom random = new SplittableRandom(42);
+        keys = new long[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = 1 + random.nextInt(10_000_000);
+        }
+    }
+
+    @Benchmark
+    public ServiceInstance consistentHash() {
+        ServiceInstance instance = hash.instance(instances, keys[next++ & (KEYS - 1)]);
+        hash.onRequestEnd(instance);
+        return instance;
+    }
+
+    @Benchmark
+    public ServiceInstance roundRobin() {
+        return roundRobin.instance(instances);
+    }
+
+    //和 eureka 中 payment 服务的 instance-id 格式一致
+    static ServiceInstance[] instances(int count) {
+        ServiceInstance[] instances = new ServiceInstance[count];
+        for (int i = 0; i < count; i++) {
+            instances[i] = new DefaultServiceInstance("payment" + (8001 + i), "CLOUD-PAYMENT-SERVICE",
+                    "10.0.0." + (i + 1), 8001 + i, false);
+        }
+        return instances;
+    }
+}
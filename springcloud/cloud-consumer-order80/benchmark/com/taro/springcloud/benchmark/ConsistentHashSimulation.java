@@ -0,0 +1,249 @@
+package com.taro.springcloud.benchmark;
+
+import com.taro.springcloud.lb.ConsistentHashLoadBalancer;
+import com.taro.springcloud.lb.MyLBImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.LongFunction;
+
+/**
+ * ClassName ConsistentHashSimulation
+ * Author taro
+ * Date 2026/10/18 23:58
+ * Version 1.0
+ */
+
+/**
+ * 不启动服务，直接调用 ConsistentHashLoadBalancer 模拟三件事：
+ * 1. 连续的 payment id 在各实例上的分布偏斜（最多/平均、最少/平均、变异系数），随 virtual-nodes 变化；
+ * 2. 实例上线、下线时换实例的 id 比例，理想值分别是 1/(n+1) 和 1/n；
+ * 3. 每个实例有固定容量的本地 LRU 缓存，id 按 Zipf 分布访问时轮询、随机和一致性哈希的命中率。
+ * 用 FIFO 窗口模拟固定数量的进行中请求，有界负载的溢出会在这里体现。
+ * benchmark/run.sh com.taro.springcloud.benchmark.ConsistentHashSimulation
+ */
+public class ConsistentHashSimulation {
+
+    private static final int INSTANCES = 10;
+
+    private static final int IDS = 1_000_000;
+
+    //每个实例缓存 1% 的 id，合计 10%
+    private static final int CACHE_PER_INSTANCE = 10_000;
+
+    private static final int REQUESTS = 5_000_000;
+
+    //前面的请求只用来填满缓存，不计入命中率
+    private static final int WARMUP_REQUESTS = 1_000_000;
+
+    private static final int IN_FLIGHT = 32;
+
+    private static final double ZIPF_EXPONENT = 1.0;
+
+    public static void main(String[] args) {
+        ServiceInstance[] instances = ConsistentHashBenchmark.instances(INSTANCES);
+        distribution(instances);
+        remapping(instances);
+        hitRate(instances);
+    }
+
+    private static void distribution(ServiceInstance[] instances) {
+        System.out.printf("== 分布：%d 个实例，id 1..%d%n", instances.length, IDS);
+        System.out.printf("%-14s %8s %8s %8s%n", "virtual-nodes", "max/avg", "min/avg", "cv");
+        for (int virtualNodes : new int[]{10, 40, 160, 640}) {
+            ConsistentHashLoadBalancer lb = new ConsistentHashLoadBalancer(virtualNodes, 1.25, new SimpleMeterRegistry());
+            int[] owners = owners(lb, instances);
+            long[] counts = new long[instances.length];
+            for (int owner : owners) {
+                counts[owner]++;
+            }
+            double mean = (double) IDS / instances.length;
+            double variance = 0;
+            for (long count : counts) {
+                variance += (count - mean) * (count - mean);
+            }
+            double cv = Math.sqrt(variance / instances.length) / mean;
+            System.out.printf("%-14d %8.3f %8.3f %8.3f%n", virtualNodes,
+                    Arrays.stream(counts).max().getAsLong() / mean, Arrays.stream(counts).min().getAsLong() / mean, cv);
+        }
+    }
+
+    private static void remapping(ServiceInstance[] instances) {
+        int n = instances.length;
+        ServiceInstance[] joined = ConsistentHashBenchmark.instances(n + 1);
+        //下线 payment8004
+        ServiceInstance[] left = new ServiceInstance[n - 1];
+        for (int i = 0, j = 0; i < n; i++) {
+            if (i != 3) {
+                left[j++] = instances[i];
+            }
+        }
+        ConsistentHashLoadBalancer lb = new ConsistentHashLoadBalancer(160, 1.25, new SimpleMeterRegistry());
+        String[] before = ids(instances, owners(lb, instances));
+        String[] afterJoin = ids(joined, owners(lb, joined));
+        String[] afterLeave = ids(left, owners(lb, left));
+        int movedOnJoin = 0;
+        int movedOnLeave = 0;
+        int movedBetweenSurvivors = 0;
+        for (int i = 0; i < IDS; i++) {
+            if (!before[i].equals(afterJoin[i])) {
+                movedOnJoin++;
+            }
+            if (!before[i].equals(afterLeave[i])) {
+                movedOnLeave++;
+                if (!before[i].equals("payment8004")) {
+                    movedBetweenSurvivors++;
+                }
+            }
+        }
+        System.out.printf("== 换实例的 id 比例（virtual-nodes=160）%n");
+        System.out.printf("上线 1 个：%.4f（理想 %.4f）%n", (double) movedOnJoin / IDS, 1.0 / (n + 1));
+        System.out.printf("下线 1 个：%.4f（理想 %.4f），其中在存活实例之间移动的 %d 个%n",
+                (double) movedOnLeave / IDS, 1.0 / n, movedBetweenSurvivors);
+    }
+
+    private static void hitRate(ServiceInstance[] instances) {
+        System.out.printf("== 缓存命中率：Zipf(s=%.1f) 访问 %d 个 id，每个实例 LRU %d 条，进行中请求 %d 个%n",
+                ZIPF_EXPONENT, IDS, CACHE_PER_INSTANCE, IN_FLIGHT);
+        System.out.printf("%-22s %8s %14s %10s%n", "策略", "命中率", "请求 max/avg", "溢出");
+        long[] stream = zipfStream();
+
+        MyLBImpl roundRobin = new MyLBImpl();
+        report("round-robin", simulate(instances, stream, id -> roundRobin.instance(instances), null), null);
+
+        SplittableRandom random = new SplittableRandom(7);
+        report("random", simulate(instances, stream, id -> instances[random.nextInt(instances.length)], null), null);
+
+        for (double loadFactor : new double[]{1.25, 2.0, 1e9}) {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            ConsistentHashLoadBalancer lb = new ConsistentHashLoadBalancer(160, loadFactor, registry);
+            Result result = simulate(instances, stream, id -> lb.instance(instances, id), lb);
+            String name = loadFactor > 100 ? "hash 不限负载" : "hash load-factor=" + loadFactor;
+            report(name, result, registry.get("consumer.lb.hash.overflow").counter().count());
+        }
+    }
+
+    private static Result simulate(ServiceInstance[] instances, long[] stream,
+                                   LongFunction<ServiceInstance> choose, ConsistentHashLoadBalancer lb) {
+        Map<ServiceInstance, Map<Long, Boolean>> caches = new HashMap<>();
+        Map<ServiceInstance, long[]> requests = new HashMap<>();
+        for (ServiceInstance instance : instances) {
+            caches.put(instance, lru(CACHE_PER_INSTANCE));
+            requests.put(instance, new long[1]);
+        }
+        ArrayDeque<ServiceInstance> inFlight = new ArrayDeque<>(IN_FLIGHT + 1);
+        long hits = 0;
+        for (int i = 0; i < stream.length; i++) {
+            long id = stream[i];
+            ServiceInstance instance = choose.apply(id);
+            inFlight.addLast(instance);
+            //窗口满了就结束最早的请求，各实例的延迟相同
+            if (inFlight.size() > IN_FLIGHT) {
+                ServiceInstance done = inFlight.removeFirst();
+                if (lb != null) {
+                    lb.onRequestEnd(done);
+                }
+            }
+            Map<Long, Boolean> cache = caches.get(instance);
+            boolean hit = cache.get(id) != null;
+            if (!hit) {
+                cache.put(id, Boolean.TRUE);
+            }
+            if (i >= WARMUP_REQUESTS) {
+                requests.get(instance)[0]++;
+                if (hit) {
+                    hits++;
+                }
+            }
+        }
+        if (lb != null) {
+            inFlight.forEach(lb::onRequestEnd);
+        }
+        long measured = stream.length - WARMUP_REQUESTS;
+        long max = requests.values().stream().mapToLong(count -> count[0]).max().getAsLong();
+        return new Result((double) hits / measured, max / ((double) measured / instances.length));
+    }
+
+    private static void report(String name, Result result, Double overflow) {
+        System.out.printf("%-22s %8.3f %14.3f %10s%n", name, result.hitRate, result.maxShare,
+                overflow == null ? "-" : String.valueOf(overflow.longValue()));
+    }
+
+    //rank 到 id 的映射打乱，热点 id 不相邻
+    private static long[] zipfStream() {
+        double[] cumulative = new double[IDS];
+        double sum = 0;
+        for (int rank = 0; rank < IDS; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, ZIPF_EXPONENT);
+            cumulative[rank] = sum;
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        long[] idOfRank = new long[IDS];
+        for (int i = 0; i < IDS; i++) {
+            idOfRank[i] = i + 1;
+        }
+        for (int i = IDS - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long tmp = idOfRank[i];
+            idOfRank[i] = idOfRank[j];
+            idOfRank[j] = tmp;
+        }
+        long[] stream = new long[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            stream[i] = idOfRank[rank < 0 ? Math.min(-rank - 1, IDS - 1) : rank];
+        }
+        return stream;
+    }
+
+    //没有进行中的请求，得到的是每个 id 的首选实例
+    private static int[] owners(ConsistentHashLoadBalancer lb, ServiceInstance[] instances) {
+        Map<ServiceInstance, Integer> index = new HashMap<>();
+        for (int i = 0; i < instances.length; i++) {
+            index.put(instances[i], i);
+        }
+        int[] owners = new int[IDS];
+        for (int id = 1; id <= IDS; id++) {
+            ServiceInstance instance = lb.instance(instances, id);
+            lb.onRequestEnd(instance);
+            owners[id - 1] = index.get(instance);
+        }
+        return owners;
+    }
+
+    private static String[] ids(ServiceInstance[] instances, int[] owners) {
+        String[] ids = new String[owners.length];
+        for (int i = 0; i < owners.length; i++) {
+            ids[i] = instances[owners[i]].getInstanceId();
+        }
+        return ids;
+    }
+
+    private static Map<Long, Boolean> lru(int capacity) {
+        return new LinkedHashMap<Long, Boolean>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    private static final class Result {
+
+        final double hitRate;
+
+        //请求最多的实例相对平均值的倍数
+        final double maxShare;
+
+        Result(double hitRate, double maxShare) {
+            this.hitRate = hitRate;
+            this.maxShare = maxShare;
+        }
+    }
+}
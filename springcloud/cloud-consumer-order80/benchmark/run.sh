@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# cloud-consumer-order80 的 JMH 基准和模拟。编译 benchmark/ 下的源码，依赖 cloud-consumer-order80 的 classpath 和 JMH，
+# JMH 由 maven 下载到本地仓库，不加入模块的 pom。
+#
+# 用法：benchmark/run.sh <主类或 JMH 正则> [参数...]
+#   benchmark/run.sh ConsistentHashBenchmark -t 1             交给 JMH 执行，参数原样传给 JMH
+#   benchmark/run.sh com.taro.springcloud.benchmark.Xxx ...   含有 main 方法的类直接执行
+# 需要 JDK 8 和 maven；JAVA_OPTS 传给执行基准的 JVM，例如 JAVA_OPTS=-Xmx3g。
+set -euo pipefail
+
+JMH_VERSION=1.37
+
+MODULE_DIR=$(cd "$(dirname "$0")/.." && pwd)
+ROOT=$(dirname "$MODULE_DIR")
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+mvn -B -q -f "$ROOT/pom.xml" -N install
+mvn -B -q -f "$ROOT/cloud-api-commons/pom.xml" install -DskipTests
+mvn -B -q -f "$MODULE_DIR/pom.xml" install -DskipTests
+mvn -B -q -f "$MODULE_DIR/pom.xml" dependency:build-classpath -Dmdep.outputFile="$WORK/module.cp"
+
+# 只为解析 JMH 及其依赖的临时 pom
+cat > "$WORK/jmh-pom.xml" << EOF
+<project xmlns="http://maven.apache.org/POM/4.0.0">
+  <modelVersion>4.0.0</modelVersion>
+  <groupId>com.taro</groupId>
+  <artifactId>benchmark-jmh</artifactId>
+  <version>1</version>
+  <dependencies>
+    <dependency><groupId>org.openjdk.jmh</groupId><artifactId>jmh-core</artifactId><version>$JMH_VERSION</version></dependency>
+    <dependency><groupId>org.openjdk.jmh</groupId><artifactId>jmh-generator-annprocess</artifactId><version>$JMH_VERSION</version></dependency>
+  </dependencies>
+</project>
+EOF
+mvn -B -q -f "$WORK/jmh-pom.xml" dependency:build-classpath -Dmdep.outputFile="$WORK/jmh.cp"
+
+CP="$MODULE_DIR/target/classes:$(cat "$WORK/module.cp"):$(cat "$WORK/jmh.cp")"
+mkdir -p "$WORK/classes"
+javac -encoding UTF-8 -cp "$CP" -d "$WORK/classes" $(find "$MODULE_DIR/benchmark" -name '*.java')
+
+TARGET=${1:?需要指定主类或 JMH 正则}
+shift
+if [[ $TARGET == *.* ]]; then
+  java ${JAVA_OPTS:-} -cp "$WORK/classes:$CP" "$TARGET" "$@"
+else
+  java ${JAVA_OPTS:-} -cp "$WORK/classes:$CP" org.openjdk.jmh.Main "$TARGET" "$@"
+fi
@@ -4,6 +4,9 @@ import com.netflix.loadbalancer.ILoadBalancer;
 import com.netflix.loadbalancer.IRule;
 import com.netflix.loadbalancer.RandomRule;
 import com.netflix.loadbalancer.Server;
+import com.taro.springcloud.lb.SlowStartWeights;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -18,7 +21,16 @@ import org.springframework.context.annotation.Configuration;
 public class MySelfRule {
 
     @Bean
-    public IRule myRule(){
+    public IRule myRule(@Value("${consumer.lb.strategy:round-robin}") String strategy,
+                        ObjectProvider<SlowStartWeights> slowStartWeights){
+        //slow-start 时新实例逐步加大流量
+        if ("slow-start".equals(strategy)) {
+            return new SlowStartRule(slowStartWeights.getObject());
+        }
+        //p2c 时避开响应慢、积压多的实例
+        if ("p2c".equals(strategy)) {
+            return new P2CRule();
+        }
         //指定负载均衡算法为随即算法
         return new RandomRule();
     }
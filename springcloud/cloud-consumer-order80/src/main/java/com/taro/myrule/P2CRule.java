@@ -0,0 +1,63 @@
+package com.taro.myrule;
+
+import com.netflix.client.config.IClientConfig;
+import com.netflix.loadbalancer.AbstractLoadBalancer;
+import com.netflix.loadbalancer.AbstractLoadBalancerRule;
+import com.netflix.loadbalancer.LoadBalancerStats;
+import com.netflix.loadbalancer.Server;
+import com.netflix.loadbalancer.ServerStats;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ClassName P2CRule
+ * Author taro
+ * Date 2026/10/18 14:30
+ * Version 1.0
+ */
+
+/**
+ * ribbon 版本的 power of two choices：随机选两个实例，取 平均响应时间 * (进行中请求数 + 1) 较小的一个。
+ * 统计来自 ribbon 的 ServerStats，@LoadBalanced RestTemplate 的每次请求都会更新。
+ */
+public class P2CRule extends AbstractLoadBalancerRule {
+
+    @Override
+    public Server choose(Object key) {
+        List<Server> servers = getLoadBalancer().getReachableServers();
+        int size = servers.size();
+        if (size == 0) {
+            return null;
+        }
+        if (size == 1) {
+            return servers.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(size);
+        int second = random.nextInt(size - 1);
+        if (second >= first) {
+            second++;
+        }
+        Server a = servers.get(first);
+        Server b = servers.get(second);
+        return cost(a) <= cost(b) ? a : b;
+    }
+
+    private double cost(Server server) {
+        if (!(getLoadBalancer() instanceof AbstractLoadBalancer)) {
+            return 0;
+        }
+        LoadBalancerStats loadBalancerStats = ((AbstractLoadBalancer) getLoadBalancer()).getLoadBalancerStats();
+        if (loadBalancerStats == null) {
+            return 0;
+        }
+        ServerStats stats = loadBalancerStats.getSingleServerStat(server);
+        long now = System.currentTimeMillis();
+        return Math.max(stats.getResponseTimeAvg(), 1) * (stats.getActiveRequestsCount(now) + 1);
+    }
+
+    @Override
+    public void initWithNiwsConfig(IClientConfig clientConfig) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.taro.myrule;
+
+import com.netflix.client.config.IClientConfig;
+import com.netflix.loadbalancer.AbstractLoadBalancerRule;
+import com.netflix.loadbalancer.Server;
+import com.netflix.niws.loadbalancer.DiscoveryEnabledServer;
+import com.taro.springcloud.lb.SlowStartWeights;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ClassName SlowStartRule
+ * Author taro
+ * Date 2026/10/18 13:40
+ * Version 1.0
+ */
+
+//ribbon 版本的慢启动，权重计算与 SlowStartLoadBalancer 共用 SlowStartWeights
+public class SlowStartRule extends AbstractLoadBalancerRule {
+
+    private final SlowStartWeights slowStartWeights;
+
+    public SlowStartRule(SlowStartWeights slowStartWeights) {
+        this.slowStartWeights = slowStartWeights;
+    }
+
+    @Override
+    public Server choose(Object key) {
+        List<Server> servers = getLoadBalancer().getReachableServers();
+        if (servers.isEmpty()) {
+            return null;
+        }
+        return slowStartWeights.choose(servers, Server::getId, SlowStartRule::metadataOf);
+    }
+
+    private static Map<String, String> metadataOf(Server server) {
+        if (server instanceof DiscoveryEnabledServer) {
+            return ((DiscoveryEnabledServer) server).getInstanceInfo().getMetadata();
+        }
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public void initWithNiwsConfig(IClientConfig clientConfig) {
+    }
+}
@@ -2,18 +2,24 @@ package com.taro.springcloud.Controller;
 
 import com.taro.springcloud.entities.CommonResult;
 import com.taro.springcloud.entities.Payment;
+import com.taro.springcloud.hedge.HedgeProperties;
+import com.taro.springcloud.hedge.Hedger;
+import com.taro.springcloud.lb.ConsistentHashLoadBalancer;
 import com.taro.springcloud.lb.LoadBalancer;
+import com.taro.springcloud.lb.ServiceInstanceSnapshot;
+import com.taro.springcloud.limit.ConcurrencyLimitExceededException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.client.ServiceInstance;
-import org.springframework.cloud.client.discovery.DiscoveryClient;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.client.RestTemplate;
 
 import javax.annotation.Resource;
-import java.net.URI;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
 
 /**
  * ClassName OrderController
@@ -33,11 +39,21 @@ public class OrderController {
     private RestTemplate restTemplate;
 
     @Autowired
-    private DiscoveryClient discoveryClient;
+    private ServiceInstanceSnapshot instanceSnapshot;
 
     @Autowired
     private LoadBalancer myLB;
 
+    //consumer.lb.hash.enabled 为 true 时才有
+    @Autowired(required = false)
+    private ConsistentHashLoadBalancer consistentHashLB;
+
+    @Autowired
+    private Hedger hedger;
+
+    @Autowired
+    private HedgeProperties hedgeProperties;
+
     @GetMapping("/create")
     public CommonResult<Payment> create(Payment payment) {
         return restTemplate.postForObject(PAYMENT_URL + "/payment/create",payment ,CommonResult.class );
@@ -46,29 +62,104 @@ public class OrderController {
     @GetMapping("/get/{id}")
     public CommonResult<Payment> getPayment(@PathVariable("id") Long id){
         //getObject 仅仅获得 json 数据
-        return restTemplate.getForObject(PAYMENT_URL + "/payment/get/" + id, CommonResult.class);
+        return getById(id, url -> restTemplate.getForObject(url, CommonResult.class));
+    }
+
+    @GetMapping("/get/batch")
+    public CommonResult<List<Payment>> getPayments(@RequestParam("ids") List<Long> ids) {
+        //一次请求取回多个 payment，provider 端用一条 in 查询完成
+        return restTemplate.getForObject(PAYMENT_URL + "/payment/get/batch?ids={ids}", CommonResult.class,
+                StringUtils.collectionToCommaDelimitedString(ids));
     }
 
     @GetMapping("/getEntity/{id}")
     public CommonResult<Payment> getEntity(@PathVariable("id") Long id) {
-        //getEntity 获取详细的数据，包括响应头，响应状态码，响应体等
-        ResponseEntity<CommonResult> entity = restTemplate.getForEntity(PAYMENT_URL + "/payment/get/" + id, CommonResult.class);
+        return getById(id, url -> {
+            //getEntity 获取详细的数据，包括响应头，响应状态码，响应体等
+            ResponseEntity<CommonResult> entity = restTemplate.getForEntity(url, CommonResult.class);
+
+            if(entity.getStatusCode().is2xxSuccessful()) {
+                return entity.getBody();
+            }else {
+                return new CommonResult<>(444, "操作失败");
+            }
+        });
+    }
+
+    //按 id 读取 payment，只用于幂等的读请求
+    //开启一致性哈希时同一个 id 固定发往同一个实例；开启对冲时首选实例超过延迟分位数还没有返回，向另一个实例再请求一次
+    private <T> T getById(Long id, Function<String, T> call) {
+        String path = "/payment/get/" + id;
+        ServiceInstance[] instances = instanceSnapshot.instances("CLOUD-PAYMENT-SERVICE");
+        boolean hashing = consistentHashLB != null && instances.length > 0;
+        boolean hedging = hedgeProperties.isEnabled() && instances.length > 1;
+        if (!hashing && !hedging) {
+            return call.apply(PAYMENT_URL + path);
+        }
+        ServiceInstance primary = hashing ? consistentHashLB.instance(instances, id) : myLB.instance(instances);
+        try {
+            if (!hedging) {
+                return reported(primary, hashing, path, call);
+            }
+            ServiceInstance backup = otherThan(instances, primary);
+            return hedger.execute(() -> reported(primary, hashing, path, call), () -> reported(backup, true, path, call));
+        } finally {
+            if (hashing) {
+                consistentHashLB.onRequestEnd(primary);
+            }
+        }
+    }
+
+    //请求 instance 并把延迟和成功与否反馈给 myLB；notStarted 为 true 表示实例不是 myLB 选出的，需要先通知 myLB
+    private <T> T reported(ServiceInstance instance, boolean notStarted, String path, Function<String, T> call) {
+        if (notStarted) {
+            myLB.onRequestStart(instance);
+        }
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = call.apply(instance.getUri() + path);
+            success = true;
+            return result;
+        } finally {
+            //对冲中落后被取消（中断）的一方不算失败
+            myLB.onRequestEnd(instance, System.nanoTime() - start, success || Thread.currentThread().isInterrupted());
+        }
+    }
 
-        if(entity.getStatusCode().is2xxSuccessful()) {
-            return entity.getBody();
-        }else {
-            return new CommonResult<>(444, "操作失败");
+    //随机选择另一个实例
+    private static ServiceInstance otherThan(ServiceInstance[] instances, ServiceInstance chosen) {
+        int index = 0;
+        while (index < instances.length && !instances[index].getUri().equals(chosen.getUri())) {
+            index++;
         }
+        int offset = 1 + ThreadLocalRandom.current().nextInt(instances.length - 1);
+        return instances[(index + offset) % instances.length];
     }
 
     @GetMapping("/lb")
     public String getPaymentLB(){
-        List<ServiceInstance> instances = discoveryClient.getInstances("CLOUD-PAYMENT-SERVICE");
-        if(instances == null || instances.size() == 0) {
+        ServiceInstance[] instances = instanceSnapshot.instances("CLOUD-PAYMENT-SERVICE");
+        if(instances.length == 0) {
             return null;
         }
-        URI uri = myLB.instance(instances).getUri();
-        return restTemplate.getForObject(uri + "/payment/lb", String.class);
+        ServiceInstance instance = myLB.instance(instances);
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            String result = restTemplate.getForObject(instance.getUri() + "/payment/lb", String.class);
+            success = true;
+            return result;
+        } finally {
+            //把延迟和成功与否反馈给负载均衡器
+            myLB.onRequestEnd(instance, System.nanoTime() - start, success);
+        }
+    }
+
+    //超过下游并发上限时快速失败，不占用线程等待
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public CommonResult<Payment> limitExceeded(ConcurrencyLimitExceededException e) {
+        return new CommonResult<>(503, e.getMessage());
     }
 
     @GetMapping("/zipkin")
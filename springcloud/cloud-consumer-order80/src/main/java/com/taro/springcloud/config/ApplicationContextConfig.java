@@ -1,6 +1,15 @@
 package com.taro.springcloud.config;
 
 
+import brave.propagation.CurrentTraceContext;
+import com.taro.springcloud.hedge.HedgeProperties;
+import com.taro.springcloud.hedge.Hedger;
+import com.taro.springcloud.http.HttpClientProperties;
+import com.taro.springcloud.http.PooledHttpClientFactory;
+import com.taro.springcloud.limit.ConcurrencyLimitInterceptor;
+import com.taro.springcloud.limit.ConcurrencyLimitProperties;
+import com.taro.springcloud.limit.ConcurrencyLimiters;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,9 +25,48 @@ import org.springframework.web.client.RestTemplate;
 @Configuration
 public class ApplicationContextConfig {
 
+    @Bean
+    @ConfigurationProperties(prefix = "consumer.http")
+    public HttpClientProperties httpClientProperties() {
+        return new HttpClientProperties();
+    }
+
+    //连接池复用到服务端的长连接，同时作为 MeterBinder 输出连接池指标
+    @Bean(destroyMethod = "close")
+    public PooledHttpClientFactory pooledHttpClientFactory(HttpClientProperties httpClientProperties) {
+        return new PooledHttpClientFactory(httpClientProperties);
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "consumer.hedge")
+    public HedgeProperties hedgeProperties() {
+        return new HedgeProperties();
+    }
+
+    //对冲幂等的读请求，同时作为 MeterBinder 输出 hedge.* 指标
+    //hedge 线程上的请求沿用调用方的 trace，sleuth 恢复 trace 时同时更新 MDC
+    @Bean(destroyMethod = "close")
+    public Hedger hedger(HedgeProperties hedgeProperties, CurrentTraceContext currentTraceContext) {
+        return new Hedger(hedgeProperties, currentTraceContext::wrap);
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "consumer.limit")
+    public ConcurrencyLimitProperties concurrencyLimitProperties() {
+        return new ConcurrencyLimitProperties();
+    }
+
+    //每个下游的自适应并发上限，同时作为 MeterBinder 输出 client.concurrency.* 指标
+    @Bean
+    public ConcurrencyLimiters concurrencyLimiters(ConcurrencyLimitProperties concurrencyLimitProperties) {
+        return new ConcurrencyLimiters(concurrencyLimitProperties);
+    }
+
     @Bean
     //@LoadBalanced
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(PooledHttpClientFactory pooledHttpClientFactory, ConcurrencyLimiters concurrencyLimiters) {
+        RestTemplate restTemplate = new RestTemplate(pooledHttpClientFactory.requestFactory());
+        restTemplate.getInterceptors().add(new ConcurrencyLimitInterceptor(concurrencyLimiters));
+        return restTemplate;
     }
 }
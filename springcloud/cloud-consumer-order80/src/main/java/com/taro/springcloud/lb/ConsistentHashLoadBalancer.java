@@ -0,0 +1,201 @@
+package com.taro.springcloud.lb;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ClassName ConsistentHashLoadBalancer
+ * Author taro
+ * Date 2026/10/18 20:30
+ * Version 1.0
+ */
+
+/**
+ * 按 key（payment id）一致性哈希选择实例，同一个 id 总是落到同一个实例上，各实例的本地缓存只保存自己那部分数据。
+ * 每个实例在环上有 virtual-nodes 个虚拟节点，实例上下线时只有约 1/n 的 key 换实例。
+ * 有界负载：实例正在进行的请求数达到平均值的 load-factor 倍时，沿环顺时针交给下一个未满的实例，
+ * 热点 id 不会压垮一个实例，溢出次数见 consumer.lb.hash.overflow 指标。
+ * 环随 ServiceInstanceSnapshot 的数组重建，实例没有变化时复用。
+ */
+@Component
+@ConditionalOnProperty(prefix = "consumer.lb.hash", name = "enabled", havingValue = "true")
+public class ConsistentHashLoadBalancer {
+
+    private final int virtualNodes;
+
+    private final double loadFactor;
+
+    private final Counter overflow;
+
+    private final AtomicReference<Ring> ring = new AtomicReference<>();
+
+    private final ConcurrentHashMap<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicInteger totalInFlight = new AtomicInteger();
+
+    public ConsistentHashLoadBalancer(@Value("${consumer.lb.hash.virtual-nodes:160}") int virtualNodes,
+                                      @Value("${consumer.lb.hash.load-factor:1.25}") double loadFactor,
+                                      MeterRegistry meterRegistry) {
+        this.virtualNodes = Math.max(1, virtualNodes);
+        this.loadFactor = Math.max(1.0, loadFactor);
+        this.overflow = Counter.builder("consumer.lb.hash.overflow")
+                .description("因为首选实例负载过高交给下一个实例的请求数").register(meterRegistry);
+    }
+
+    //选中的实例请求结束后必须调用 onRequestEnd
+    public ServiceInstance instance(ServiceInstance[] instances, long key) {
+        Ring current = ringOf(instances);
+        int n = current.instances.length;
+        int total = totalInFlight.incrementAndGet();
+        //本次请求也计入平均负载，向上取整保证至少为 1
+        int capacity = (int) Math.ceil(loadFactor * total / n);
+
+        int position = current.position(mix(key));
+        int first = current.owners[position];
+        int chosen = first;
+        if (n > 1 && current.counters[first].get() >= capacity) {
+            boolean[] visited = new boolean[n];
+            visited[first] = true;
+            int remaining = n - 1;
+            for (int i = 1; i < current.points.length && remaining > 0; i++) {
+                int owner = current.owners[(position + i) % current.points.length];
+                if (visited[owner]) {
+                    continue;
+                }
+                visited[owner] = true;
+                remaining--;
+                if (current.counters[owner].get() < capacity) {
+                    chosen = owner;
+                    break;
+                }
+            }
+            if (chosen != first) {
+                overflow.increment();
+            }
+        }
+        current.counters[chosen].incrementAndGet();
+        return current.instances[chosen];
+    }
+
+    public void onRequestEnd(ServiceInstance instance) {
+        totalInFlight.decrementAndGet();
+        AtomicInteger counter = inFlight.get(ServiceInstanceSnapshot.keyOf(instance));
+        if (counter != null) {
+            counter.decrementAndGet();
+        }
+    }
+
+    private Ring ringOf(ServiceInstance[] instances) {
+        Ring current = ring.get();
+        if (current != null && current.source == instances) {
+            return current;
+        }
+        //快照刷新后数组会换成新的，实例没变时复用原来的环
+        Ring next = current != null && sameInstances(current.instances, instances)
+                ? new Ring(instances, current.instances, current.points, current.owners, current.counters)
+                : build(instances);
+        ring.compareAndSet(current, next);
+        return next;
+    }
+
+    private Ring build(ServiceInstance[] instances) {
+        AtomicInteger[] counters = new AtomicInteger[instances.length];
+        Set<String> ids = new HashSet<>();
+        TreeMap<Long, Integer> points = new TreeMap<>();
+        for (int i = 0; i < instances.length; i++) {
+            String id = ServiceInstanceSnapshot.keyOf(instances[i]);
+            ids.add(id);
+            counters[i] = inFlight.computeIfAbsent(id, k -> new AtomicInteger());
+            for (int v = 0; v < virtualNodes; v++) {
+                //极少数冲突时保留先放入的实例
+                points.putIfAbsent(mix(fnv1a(id + "#" + v)), i);
+            }
+        }
+        //下线实例的计数不再需要，进行中的请求结束时找不到计数器会直接跳过
+        inFlight.keySet().retainAll(ids);
+
+        long[] pointArray = new long[points.size()];
+        int[] ownerArray = new int[points.size()];
+        int index = 0;
+        for (Map.Entry<Long, Integer> entry : points.entrySet()) {
+            pointArray[index] = entry.getKey();
+            ownerArray[index] = entry.getValue();
+            index++;
+        }
+        return new Ring(instances, instances, pointArray, ownerArray, counters);
+    }
+
+    private static boolean sameInstances(ServiceInstance[] a, ServiceInstance[] b) {
+        if (a.length != b.length) {
+            return false;
+        }
+        for (int i = 0; i < a.length; i++) {
+            if (!ServiceInstanceSnapshot.keyOf(a[i]).equals(ServiceInstanceSnapshot.keyOf(b[i]))
+                    || !a[i].getUri().equals(b[i].getUri())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long fnv1a(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    //splitmix64 的混合函数，连续的 id 也能均匀分布在环上
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    private static final class Ring {
+
+        //构建这个环时快照中的数组，用于判断快照是否刷新过
+        final ServiceInstance[] source;
+
+        final ServiceInstance[] instances;
+
+        //按哈希值升序排列的虚拟节点及其所属实例的下标
+        final long[] points;
+        final int[] owners;
+
+        final AtomicInteger[] counters;
+
+        Ring(ServiceInstance[] source, ServiceInstance[] instances, long[] points, int[] owners, AtomicInteger[] counters) {
+            this.source = source;
+            this.instances = instances;
+            this.points = points;
+            this.owners = owners;
+            this.counters = counters;
+        }
+
+        //第一个不小于 hash 的虚拟节点，超过最大值时回到环的起点
+        int position(long hash) {
+            int index = Arrays.binarySearch(points, hash);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index == points.length ? 0 : index;
+        }
+    }
+}
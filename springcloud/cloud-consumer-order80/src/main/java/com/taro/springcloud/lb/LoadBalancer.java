@@ -2,9 +2,23 @@ package com.taro.springcloud.lb;
 
 import org.springframework.cloud.client.ServiceInstance;
 
+import java.util.Arrays;
 import java.util.List;
 
 public interface LoadBalancer {
 
     ServiceInstance instance(List<ServiceInstance> serviceInstances);
+
+    //从 ServiceInstanceSnapshot 的数组中选择，能直接按下标选择的实现应覆盖它避免包装
+    default ServiceInstance instance(ServiceInstance[] serviceInstances) {
+        return instance(Arrays.asList(serviceInstances));
+    }
+
+    //向不是由 instance 选出的实例发送请求前回调（如对冲请求），之后同样要调用 onRequestEnd
+    default void onRequestStart(ServiceInstance instance) {
+    }
+
+    //请求结束后回调，需要根据实例表现选择的实现用来更新统计
+    default void onRequestEnd(ServiceInstance instance, long latencyNanos, boolean success) {
+    }
 }
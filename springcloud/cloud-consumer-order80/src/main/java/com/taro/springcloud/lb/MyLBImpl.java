@@ -1,5 +1,6 @@
 package com.taro.springcloud.lb;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.client.ServiceInstance;
 import org.springframework.stereotype.Component;
 
@@ -14,6 +15,7 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 
 @Component
+@ConditionalOnProperty(prefix = "consumer.lb", name = "strategy", havingValue = "round-robin", matchIfMissing = true)
 public class MyLBImpl implements LoadBalancer{
 
     private AtomicInteger atomicInteger = new AtomicInteger(0);
@@ -23,6 +25,11 @@ public class MyLBImpl implements LoadBalancer{
         return serviceInstances.get(index);
     }
 
+    @Override
+    public ServiceInstance instance(ServiceInstance[] serviceInstances) {
+        return serviceInstances[getAndIncrement(serviceInstances.length)];
+    }
+
     //轮询获取下一个实例的索引
     public final int getAndIncrement(int mod){
         //自旋锁
@@ -0,0 +1,169 @@
+package com.taro.springcloud.lb;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ClassName P2CLoadBalancer
+ * Author taro
+ * Date 2026/10/18 14:10
+ * Version 1.0
+ */
+
+/**
+ * 随机选两个实例，取代价小的一个（power of two choices）。
+ * 代价 = 延迟的 peak EWMA * (进行中的请求数 + 1)：延迟变大时立即生效，变小时按 decay-seconds 逐渐衰减，
+ * 一段时间没有请求的实例代价会降下来，重新获得探测流量。
+ * 统计只用原子变量和 CAS 更新，不加锁。
+ * 超过 6 个衰减时间常数没有请求的实例统计已经没有意义，定期移除，下线实例的统计不会一直保留。
+ */
+@Component
+@ConditionalOnProperty(prefix = "consumer.lb", name = "strategy", havingValue = "p2c")
+public class P2CLoadBalancer implements LoadBalancer {
+
+    private final ConcurrentHashMap<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    //衰减时间常数
+    private final long decayNanos;
+
+    //空闲超过这个时间的统计被移除
+    private final long evictNanos;
+
+    private final AtomicLong nextEviction;
+
+    //还没有延迟数据的实例按这个延迟计算
+    private final long defaultLatencyNanos;
+
+    //失败请求按不低于这个延迟计入，避免快速失败的实例看起来很快
+    private final long failurePenaltyNanos;
+
+    public P2CLoadBalancer(@Value("${consumer.lb.p2c.decay-seconds:10}") long decaySeconds,
+                           @Value("${consumer.lb.p2c.default-latency-ms:100}") long defaultLatencyMs,
+                           @Value("${consumer.lb.p2c.failure-penalty-ms:1000}") long failurePenaltyMs) {
+        this.decayNanos = TimeUnit.SECONDS.toNanos(decaySeconds);
+        this.evictNanos = 6 * decayNanos;
+        this.nextEviction = new AtomicLong(System.nanoTime() + evictNanos);
+        this.defaultLatencyNanos = TimeUnit.MILLISECONDS.toNanos(defaultLatencyMs);
+        this.failurePenaltyNanos = TimeUnit.MILLISECONDS.toNanos(failurePenaltyMs);
+    }
+
+    @Override
+    public ServiceInstance instance(List<ServiceInstance> serviceInstances) {
+        return instance(serviceInstances.toArray(new ServiceInstance[0]));
+    }
+
+    @Override
+    public ServiceInstance instance(ServiceInstance[] serviceInstances) {
+        int size = serviceInstances.length;
+        long now = System.nanoTime();
+        evictIdle(now);
+        ServiceInstance chosen;
+        if (size == 1) {
+            chosen = serviceInstances[0];
+        } else {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(size);
+            int second = random.nextInt(size - 1);
+            if (second >= first) {
+                second++;
+            }
+            ServiceInstance a = serviceInstances[first];
+            ServiceInstance b = serviceInstances[second];
+            chosen = statsOf(a).cost(now) <= statsOf(b).cost(now) ? a : b;
+        }
+        statsOf(chosen).start(now);
+        return chosen;
+    }
+
+    @Override
+    public void onRequestStart(ServiceInstance instance) {
+        statsOf(instance).start(System.nanoTime());
+    }
+
+    @Override
+    public void onRequestEnd(ServiceInstance instance, long latencyNanos, boolean success) {
+        InstanceStats instanceStats = statsOf(instance);
+        //统计刚好被移除时计数会从新对象上减，不能减到负数
+        instanceStats.inFlight.updateAndGet(count -> count > 0 ? count - 1 : 0);
+        instanceStats.observe(success ? latencyNanos : Math.max(latencyNanos, failurePenaltyNanos), System.nanoTime());
+    }
+
+    private InstanceStats statsOf(ServiceInstance instance) {
+        String key = ServiceInstanceSnapshot.keyOf(instance);
+        InstanceStats instanceStats = stats.get(key);
+        return instanceStats != null ? instanceStats : stats.computeIfAbsent(key, id -> new InstanceStats());
+    }
+
+    //每个 evictNanos 最多由一个线程检查一次
+    private void evictIdle(long now) {
+        long next = nextEviction.get();
+        if (now - next < 0 || !nextEviction.compareAndSet(next, now + evictNanos)) {
+            return;
+        }
+        stats.values().removeIf(instanceStats -> instanceStats.inFlight.get() == 0
+                && now - instanceStats.lastUsed > evictNanos);
+    }
+
+    private final class InstanceStats {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        //最近一次选中或请求结束的时间，只用于判断是否空闲，不要求精确
+        private volatile long lastUsed = System.nanoTime();
+
+        //null 表示还没有数据
+        private final AtomicReference<Ewma> ewma = new AtomicReference<>();
+
+        void start(long now) {
+            inFlight.incrementAndGet();
+            lastUsed = now;
+        }
+
+        double cost(long now) {
+            Ewma current = ewma.get();
+            double latency = current == null ? defaultLatencyNanos : current.decayed(0, now);
+            return latency * (inFlight.get() + 1);
+        }
+
+        void observe(long latencyNanos, long now) {
+            lastUsed = now;
+            for (;;) {
+                Ewma current = ewma.get();
+                double value = current == null || latencyNanos > current.value
+                        ? latencyNanos
+                        : current.decayed(latencyNanos, now);
+                if (ewma.compareAndSet(current, new Ewma(value, now))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private final class Ewma {
+
+        private final double value;
+
+        private final long timestamp;
+
+        Ewma(double value, long timestamp) {
+            this.value = value;
+            this.timestamp = timestamp;
+        }
+
+        //按经过的时间向 sample 衰减
+        double decayed(double sample, long now) {
+            double weight = Math.exp(-Math.max(now - timestamp, 0) / (double) decayNanos);
+            return value * weight + sample * (1 - weight);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.taro.springcloud.lb;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ClassName ServiceInstanceSnapshot
+ * Author taro
+ * Date 2026/10/18 15:10
+ * Version 1.0
+ */
+
+/**
+ * 每个服务的实例列表保存为不可变数组，eureka 客户端每次刷新本地注册表（HeartbeatEvent）时整体替换。
+ * 请求路径只读取当前数组，不访问 DiscoveryClient，也不创建新的 List。
+ * 服务第一次被访问时同步加载一次，之后随事件刷新。
+ */
+@Slf4j
+@Component
+public class ServiceInstanceSnapshot {
+
+    private static final ServiceInstance[] EMPTY = new ServiceInstance[0];
+
+    //按 keyOf 排序，刷新后轮询的顺序保持稳定
+    private static final Comparator<ServiceInstance> BY_KEY = Comparator.comparing(ServiceInstanceSnapshot::keyOf);
+
+    @Autowired
+    private DiscoveryClient discoveryClient;
+
+    private final ConcurrentHashMap<String, AtomicReference<ServiceInstance[]>> snapshots = new ConcurrentHashMap<>();
+
+    //返回的数组不能修改
+    public ServiceInstance[] instances(String serviceId) {
+        AtomicReference<ServiceInstance[]> snapshot = snapshots.get(serviceId);
+        if (snapshot == null) {
+            snapshot = snapshots.computeIfAbsent(serviceId, id -> new AtomicReference<>(load(id)));
+        }
+        return snapshot.get();
+    }
+
+    @EventListener(HeartbeatEvent.class)
+    public void refresh() {
+        snapshots.forEach((serviceId, snapshot) -> snapshot.set(load(serviceId)));
+    }
+
+    //按实例保存状态时使用的 key，没有 instanceId 的实例（如 simple discovery 配置的实例）用 host:port
+    public static String keyOf(ServiceInstance instance) {
+        String id = instance.getInstanceId();
+        return id != null ? id : instance.getHost() + ":" + instance.getPort();
+    }
+
+    private ServiceInstance[] load(String serviceId) {
+        List<ServiceInstance> instances = discoveryClient.getInstances(serviceId);
+        if (instances == null || instances.isEmpty()) {
+            return EMPTY;
+        }
+        ServiceInstance[] array = instances.toArray(EMPTY);
+        Arrays.sort(array, BY_KEY);
+        return array;
+    }
+}
@@ -0,0 +1,29 @@
+package com.taro.springcloud.lb;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * ClassName SlowStartLoadBalancer
+ * Author taro
+ * Date 2026/10/18 13:30
+ * Version 1.0
+ */
+
+//consumer.lb.strategy=slow-start 时替代 MyLBImpl，新实例的流量按启动时间逐步增加
+@Component
+@ConditionalOnProperty(prefix = "consumer.lb", name = "strategy", havingValue = "slow-start")
+public class SlowStartLoadBalancer implements LoadBalancer {
+
+    @Autowired
+    private SlowStartWeights slowStartWeights;
+
+    @Override
+    public ServiceInstance instance(List<ServiceInstance> serviceInstances) {
+        return slowStartWeights.choose(serviceInstances, ServiceInstanceSnapshot::keyOf, ServiceInstance::getMetadata);
+    }
+}
@@ -0,0 +1,124 @@
+package com.taro.springcloud.lb;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * ClassName SlowStartWeights
+ * Author taro
+ * Date 2026/10/18 13:20
+ * Version 1.0
+ */
+
+/**
+ * 慢启动权重：实例在 eureka 元数据中带 startTime，启动后 window-seconds 内权重从 min-weight 逐步升到 1，
+ * 曲线为 (已运行时间 / 窗口)^(1 / aggression)，aggression 越大前期增长越快。没有 startTime 的实例权重为 1。
+ * 爬坡中的实例权重通过 consumer.lb.slow-start.weight{instance=...} 指标查看，爬坡结束后移除。
+ * 启动时间由服务端时钟给出，两端时钟偏差会让窗口提前或推迟结束。
+ */
+@Component
+@ConditionalOnProperty(prefix = "consumer.lb", name = "strategy", havingValue = "slow-start")
+public class SlowStartWeights {
+
+    public static final String START_TIME_KEY = "startTime";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${consumer.lb.slow-start.window-seconds:60}")
+    private long windowSeconds;
+
+    @Value("${consumer.lb.slow-start.aggression:1.0}")
+    private double aggression;
+
+    @Value("${consumer.lb.slow-start.min-weight:0.1}")
+    private double minWeight;
+
+    //正在爬坡的实例及其指标，key 为 idOf 返回的值
+    private final Map<String, Gauge> ramping = new ConcurrentHashMap<>();
+
+    //按权重随机选择一个实例
+    public <T> T choose(List<T> candidates, Function<T, String> idOf, Function<T, Map<String, String>> metadataOf) {
+        if (!ramping.isEmpty()) {
+            removeFinished();
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        double[] weights = new double[candidates.size()];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            T candidate = candidates.get(i);
+            weights[i] = weightOf(idOf.apply(candidate), metadataOf.apply(candidate));
+            total += weights[i];
+        }
+        double point = ThreadLocalRandom.current().nextDouble(total);
+        for (int i = 0; i < weights.length; i++) {
+            point -= weights[i];
+            if (point < 0) {
+                return candidates.get(i);
+            }
+        }
+        return candidates.get(weights.length - 1);
+    }
+
+    public double weightOf(String instanceId, Map<String, String> metadata) {
+        long startTime = startTimeOf(metadata);
+        double weight = rampWeight(startTime);
+        if (weight >= 1) {
+            Gauge gauge = ramping.remove(instanceId);
+            if (gauge != null) {
+                meterRegistry.remove(gauge);
+            }
+        } else if (!ramping.containsKey(instanceId)) {
+            ramping.computeIfAbsent(instanceId, id -> Gauge.builder("consumer.lb.slow-start.weight", () -> rampWeight(startTime))
+                    .tag("instance", id)
+                    .register(meterRegistry));
+        }
+        return weight;
+    }
+
+    //爬坡期间下线的实例不会再被计算权重，窗口结束后在这里移除
+    private void removeFinished() {
+        ramping.values().removeIf(gauge -> {
+            if (gauge.value() < 1) {
+                return false;
+            }
+            meterRegistry.remove(gauge);
+            return true;
+        });
+    }
+
+    private double rampWeight(long startTime) {
+        if (startTime <= 0) {
+            return 1;
+        }
+        double progress = (System.currentTimeMillis() - startTime) / (windowSeconds * 1000.0);
+        if (progress >= 1) {
+            return 1;
+        }
+        return Math.max(minWeight, Math.pow(Math.max(progress, 0), 1 / aggression));
+    }
+
+    private static long startTimeOf(Map<String, String> metadata) {
+        String value = metadata == null ? null : metadata.get(START_TIME_KEY);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.taro.springcloud.config;
 
+import com.taro.springcloud.http.HttpClientProperties;
+import com.taro.springcloud.http.PooledHttpClientFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,9 +18,21 @@ import org.springframework.web.client.RestTemplate;
 @Configuration
 public class ApplicationContextConfig {
 
+    @Bean
+    @ConfigurationProperties(prefix = "consumer.http")
+    public HttpClientProperties httpClientProperties() {
+        return new HttpClientProperties();
+    }
+
+    //连接池复用到服务端的长连接，同时作为 MeterBinder 输出连接池指标
+    @Bean(destroyMethod = "close")
+    public PooledHttpClientFactory pooledHttpClientFactory(HttpClientProperties httpClientProperties) {
+        return new PooledHttpClientFactory(httpClientProperties);
+    }
+
     @Bean
     @LoadBalanced
-    public RestTemplate getRestTemplate(){
-        return new RestTemplate();
+    public RestTemplate getRestTemplate(PooledHttpClientFactory pooledHttpClientFactory){
+        return new RestTemplate(pooledHttpClientFactory.requestFactory());
     }
 }
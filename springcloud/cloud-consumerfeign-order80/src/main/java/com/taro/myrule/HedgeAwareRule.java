@@ -0,0 +1,100 @@
+package com.taro.myrule;
+
+import com.netflix.client.config.IClientConfig;
+import com.netflix.loadbalancer.AbstractLoadBalancerRule;
+import com.netflix.loadbalancer.ILoadBalancer;
+import com.netflix.loadbalancer.Server;
+import com.netflix.loadbalancer.ZoneAvoidanceRule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * ClassName HedgeAwareRule
+ * Author taro
+ * Date 2026/10/18 23:45
+ * Version 1.0
+ */
+
+/**
+ * feign 通过 ribbon 选择实例，调用方拿不到实例，不能像 order80 那样自己选对冲的实例。
+ * 这里包装 ribbon 默认的 ZoneAvoidanceRule：首选请求在 Route.primary 中执行时记录 ribbon 选出的实例，
+ * 对冲请求在 Route.backup 中执行时从其余可用实例中随机选择，没有其他实例时才交给 ZoneAvoidanceRule。
+ * ribbon 在发起请求的线程上选择实例，所以用 ThreadLocal 传递。
+ */
+public class HedgeAwareRule extends AbstractLoadBalancerRule {
+
+    private static final ThreadLocal<Route> PRIMARY = new ThreadLocal<>();
+
+    private static final ThreadLocal<Route> BACKUP = new ThreadLocal<>();
+
+    //ZoneAwareLoadBalancer 按 zone 复制规则时通过无参构造创建，所以在这里创建被包装的规则
+    private final ZoneAvoidanceRule delegate = new ZoneAvoidanceRule();
+
+    @Override
+    public Server choose(Object key) {
+        Route backup = BACKUP.get();
+        if (backup != null && backup.primary != null) {
+            Server other = otherThan(getLoadBalancer().getReachableServers(), backup.primary);
+            if (other != null) {
+                return other;
+            }
+        }
+        Server server = delegate.choose(key);
+        Route primary = PRIMARY.get();
+        if (primary != null) {
+            primary.primary = server;
+        }
+        return server;
+    }
+
+    //随机选择另一个实例
+    private static Server otherThan(List<Server> servers, Server chosen) {
+        List<Server> others = new ArrayList<>(servers.size());
+        for (Server server : servers) {
+            if (!server.getId().equals(chosen.getId())) {
+                others.add(server);
+            }
+        }
+        return others.isEmpty() ? null : others.get(ThreadLocalRandom.current().nextInt(others.size()));
+    }
+
+    @Override
+    public void setLoadBalancer(ILoadBalancer lb) {
+        super.setLoadBalancer(lb);
+        delegate.setLoadBalancer(lb);
+    }
+
+    @Override
+    public void initWithNiwsConfig(IClientConfig clientConfig) {
+        delegate.initWithNiwsConfig(clientConfig);
+    }
+
+    /**
+     * 一次对冲中首选请求和对冲请求共用一个 Route。
+     */
+    public static final class Route {
+
+        //首选请求最后一次选出的实例，对冲请求排除它
+        private volatile Server primary;
+
+        public <T> T primary(Supplier<T> call) {
+            return with(PRIMARY, call);
+        }
+
+        public <T> T backup(Supplier<T> call) {
+            return with(BACKUP, call);
+        }
+
+        private <T> T with(ThreadLocal<Route> current, Supplier<T> call) {
+            current.set(this);
+            try {
+                return call.get();
+            } finally {
+                current.remove();
+            }
+        }
+    }
+}
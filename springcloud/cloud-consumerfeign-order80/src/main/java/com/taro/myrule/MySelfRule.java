@@ -0,0 +1,26 @@
+package com.taro.myrule;
+
+import com.netflix.client.config.IClientConfig;
+import com.netflix.loadbalancer.IRule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ClassName MySelfRule
+ * Author taro
+ * Date 2026/10/18 23:45
+ * Version 1.0
+ */
+
+//不能放在 com.taro.springcloud 包下，否则会被扫描成所有 ribbon 客户端共用的配置
+@Configuration
+public class MySelfRule {
+
+    //仍然使用 ribbon 默认的 ZoneAvoidanceRule，只是对冲请求避开首选请求的实例
+    @Bean
+    public IRule myRule(IClientConfig clientConfig) {
+        HedgeAwareRule rule = new HedgeAwareRule();
+        rule.initWithNiwsConfig(clientConfig);
+        return rule;
+    }
+}
@@ -0,0 +1,38 @@
+package com.taro.springcloud.config;
+
+import com.taro.springcloud.limit.ConcurrencyLimitProperties;
+import com.taro.springcloud.limit.ConcurrencyLimiters;
+import com.taro.springcloud.limit.LimitedFeignClientPostProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ClassName ConcurrencyLimitConfig
+ * Author taro
+ * Date 2026/10/18 20:00
+ * Version 1.0
+ */
+
+@Configuration
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "consumer.limit")
+    public ConcurrencyLimitProperties concurrencyLimitProperties() {
+        return new ConcurrencyLimitProperties();
+    }
+
+    //每个下游的自适应并发上限，同时作为 MeterBinder 输出 client.concurrency.* 指标
+    @Bean
+    public ConcurrencyLimiters concurrencyLimiters(ConcurrencyLimitProperties concurrencyLimitProperties) {
+        return new ConcurrencyLimiters(concurrencyLimitProperties);
+    }
+
+    //包装 ribbon 的 LoadBalancerFeignClient，按服务名限制
+    @Bean
+    public static LimitedFeignClientPostProcessor limitedFeignClientPostProcessor(ObjectProvider<ConcurrencyLimiters> concurrencyLimiters) {
+        return new LimitedFeignClientPostProcessor(concurrencyLimiters);
+    }
+}
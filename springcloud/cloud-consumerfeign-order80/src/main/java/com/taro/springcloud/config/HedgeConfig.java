@@ -0,0 +1,32 @@
+package com.taro.springcloud.config;
+
+import com.taro.springcloud.hedge.HedgeProperties;
+import com.taro.springcloud.hedge.Hedger;
+import com.taro.springcloud.utils.MdcContext;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ClassName HedgeConfig
+ * Author taro
+ * Date 2026/10/18 18:20
+ * Version 1.0
+ */
+
+@Configuration
+public class HedgeConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "consumer.hedge")
+    public HedgeProperties hedgeProperties() {
+        return new HedgeProperties();
+    }
+
+    //对冲幂等的读请求，同时作为 MeterBinder 输出 hedge.* 指标
+    //这里没有 sleuth，hedge 线程上只需要带上调用方的 MDC
+    @Bean(destroyMethod = "close")
+    public Hedger hedger(HedgeProperties hedgeProperties) {
+        return new Hedger(hedgeProperties, MdcContext::wrap);
+    }
+}
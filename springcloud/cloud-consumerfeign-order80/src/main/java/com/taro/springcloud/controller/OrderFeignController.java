@@ -2,13 +2,19 @@ package com.taro.springcloud.controller;
 
 import com.taro.springcloud.entities.CommonResult;
 import com.taro.springcloud.entities.Payment;
+import com.taro.springcloud.limit.ConcurrencyLimitExceededException;
+import com.taro.springcloud.service.HedgedPaymentService;
 import com.taro.springcloud.service.PaymentFeignService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 /**
  * ClassName OrderFeignController
  * Author taro
@@ -23,8 +29,22 @@ public class OrderFeignController {
     @Autowired
     private PaymentFeignService paymentFeignService;
 
+    @Autowired
+    private HedgedPaymentService hedgedPaymentService;
+
     @GetMapping("/get/{id}")
     public CommonResult<Payment> getPaymentById(@PathVariable("id") Long id){
-        return paymentFeignService.getPaymentById(id);
+        return hedgedPaymentService.getPaymentById(id);
+    }
+
+    @GetMapping("/get/batch")
+    public CommonResult<List<Payment>> getPaymentsByIds(@RequestParam("ids") List<Long> ids){
+        return paymentFeignService.getPaymentsByIds(ids);
+    }
+
+    //超过下游并发上限时快速失败，不占用线程等待
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public CommonResult<Payment> limitExceeded(ConcurrencyLimitExceededException e) {
+        return new CommonResult<>(503, e.getMessage());
     }
 }
@@ -0,0 +1,43 @@
+package com.taro.springcloud.service;
+
+import com.taro.myrule.HedgeAwareRule;
+import com.taro.springcloud.entities.CommonResult;
+import com.taro.springcloud.entities.Payment;
+import com.taro.springcloud.hedge.Hedger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.stereotype.Service;
+
+/**
+ * ClassName HedgedPaymentService
+ * Author taro
+ * Date 2026/10/18 18:25
+ * Version 1.0
+ */
+
+/**
+ * 给 PaymentFeignService 的幂等读请求加上对冲。
+ * feign 通过 ribbon 选择实例，HedgeAwareRule 让对冲请求避开首选请求选出的实例。
+ */
+@Service
+public class HedgedPaymentService {
+
+    @Autowired
+    private PaymentFeignService paymentFeignService;
+
+    @Autowired
+    private Hedger hedger;
+
+    @Autowired
+    private DiscoveryClient discoveryClient;
+
+    public CommonResult<Payment> getPaymentById(Long id) {
+        //只有一个实例时对冲只会打到同一个实例上，只发送一次
+        if (discoveryClient.getInstances("CLOUD-PAYMENT-SERVICE").size() < 2) {
+            return hedger.execute(() -> paymentFeignService.getPaymentById(id), null);
+        }
+        HedgeAwareRule.Route route = new HedgeAwareRule.Route();
+        return hedger.execute(() -> route.primary(() -> paymentFeignService.getPaymentById(id)),
+                () -> route.backup(() -> paymentFeignService.getPaymentById(id)));
+    }
+}
@@ -0,0 +1,70 @@
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ClassName LoadTest
+ * Author taro
+ * Date 2026/10/18 10:05
+ * Version 1.0
+ */
+
+//concurrency 个线程在 durationMs 内循环请求 {baseUrl}/consumer/payment/get/{id}，输出吞吐和延迟分位数
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args[0];
+        int concurrency = Integer.parseInt(args[1]);
+        long durationMs = Long.parseLong(args[2]);
+        long end = System.currentTimeMillis() + durationMs;
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            long firstId = i * 1_000_000L;
+            workers.add(executor.submit(() -> {
+                long id = firstId;
+                byte[] buffer = new byte[4096];
+                while (System.currentTimeMillis() < end) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + "/consumer/payment/get/" + id++).openConnection();
+                        connection.setConnectTimeout(5000);
+                        connection.setReadTimeout(10000);
+                        try (InputStream in = connection.getInputStream()) {
+                            while (in.read(buffer) > 0) {
+                                //只读完响应，不解析
+                            }
+                        }
+                        if (connection.getResponseCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    latencies.add((System.nanoTime() - start) / 1_000_000);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        if (sorted.length == 0) {
+            System.out.println("requests=0 errors=" + errors.get());
+            return;
+        }
+        System.out.printf("requests=%d errors=%d rps=%.0f p50=%dms p99=%dms%n", sorted.length, errors.get(),
+                sorted.length * 1000.0 / durationMs, sorted[sorted.length / 2], sorted[sorted.length * 99 / 100]);
+    }
+}
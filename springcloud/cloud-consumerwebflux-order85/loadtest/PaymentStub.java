@@ -0,0 +1,44 @@
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassName PaymentStub
+ * Author taro
+ * Date 2026/10/18 10:00
+ * Version 1.0
+ */
+
+//压测用的桩服务：/payment/get/{id} 固定延迟后返回 CommonResult，响应由定时线程发出，不占用处理线程
+public class PaymentStub {
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 18090;
+        long delayMs = args.length > 1 ? Long.parseLong(args[1]) : 200;
+        ScheduledExecutorService timer = Executors.newScheduledThreadPool(4);
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 4096);
+        server.createContext("/payment/get/", exchange -> timer.schedule(() -> {
+            try {
+                String path = exchange.getRequestURI().getPath();
+                String id = path.substring(path.lastIndexOf('/') + 1);
+                byte[] body = ("{\"code\":200,\"message\":\"stub\",\"data\":{\"id\":" + id + ",\"serial\":\"s" + id + "\"}}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            } catch (Exception e) {
+                exchange.close();
+            }
+        }, delayMs, TimeUnit.MILLISECONDS));
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.start();
+        System.out.println("stub listening on " + port + ", delay " + delayMs + " ms");
+    }
+}
@@ -0,0 +1,85 @@
+#!/usr/bin/env bash
+# 阻塞的 cloud-consumer-order80 和响应式的 cloud-consumerwebflux-order85 在相同条件下的对比压测。
+# 两个消费者都指向 PaymentStub（每个请求固定延迟），不需要 eureka 和数据库。依次压测后输出
+# 吞吐、p50/p99、峰值线程数和压测结束时的堆内存。
+#
+# 用法：loadtest/run.sh [并发数=400] [持续毫秒=10000] [服务端延迟毫秒=200] [消费者可用 CPU 数=1]
+# 需要 JDK 8、maven、curl；有 taskset 时限制消费者可用的 CPU。
+set -euo pipefail
+
+CONCURRENCY=${1:-400}
+DURATION_MS=${2:-10000}
+DELAY_MS=${3:-200}
+CPUS=${4:-1}
+
+MODULE_DIR=$(cd "$(dirname "$0")/.." && pwd)
+ROOT=$(dirname "$MODULE_DIR")
+WORK=$(mktemp -d)
+STUB_PORT=18090
+PIDS=()
+
+cleanup() {
+  for pid in ${PIDS[@]+"${PIDS[@]}"}; do
+    kill "$pid" 2> /dev/null || true
+  done
+  rm -rf "$WORK"
+}
+trap cleanup EXIT
+
+# 先安装父 pom 和 cloud-api-commons，再编译两个消费者并导出依赖的 classpath
+mvn -B -q -f "$ROOT/pom.xml" -N install
+mvn -B -q -f "$ROOT/cloud-api-commons/pom.xml" install -DskipTests
+for module in cloud-consumer-order80 cloud-consumerwebflux-order85; do
+  mvn -B -q -f "$ROOT/$module/pom.xml" compile dependency:build-classpath -Dmdep.outputFile="$WORK/$module.cp"
+done
+
+javac -encoding UTF-8 -d "$WORK" "$MODULE_DIR/loadtest/PaymentStub.java" "$MODULE_DIR/loadtest/LoadTest.java"
+java -cp "$WORK" PaymentStub "$STUB_PORT" "$DELAY_MS" > "$WORK/stub.log" 2>&1 &
+PIDS+=($!)
+
+PIN=()
+if command -v taskset > /dev/null; then
+  PIN=(taskset -c "0-$((CPUS - 1))")
+fi
+
+# 不连接 eureka：order80 通过 simple discovery 找到桩服务，order85 的 @LoadBalanced WebClient 通过 ribbon 的静态列表
+COMMON_ARGS=(
+  --eureka.client.enabled=false
+  "--spring.cloud.discovery.client.simple.instances.CLOUD-PAYMENT-SERVICE[0].uri=http://localhost:$STUB_PORT"
+  "--CLOUD-PAYMENT-SERVICE.ribbon.listOfServers=localhost:$STUB_PORT"
+  --spring.zipkin.enabled=false
+  --spring.devtools.restart.enabled=false
+  --management.endpoints.web.exposure.include=health,metrics
+)
+
+metric() {
+  curl -s "http://localhost:$1/actuator/metrics/$2" | sed -n 's/.*"value":\([0-9.E+-]*\).*/\1/p'
+}
+
+# 参数：模块 启动类 端口 [额外参数...]
+run() {
+  local module=$1 main=$2 port=$3
+  shift 3
+  ${PIN[@]+"${PIN[@]}"} java -cp "$ROOT/$module/target/classes:$(cat "$WORK/$module.cp")" "$main" \
+      --server.port="$port" "${COMMON_ARGS[@]}" "$@" > "$WORK/$module.log" 2>&1 &
+  local pid=$!
+  PIDS+=($pid)
+  for _ in $(seq 1 120); do
+    curl -sf "http://localhost:$port/actuator/health" > /dev/null && break
+    sleep 1
+  done
+  #预热，让连接池和 JIT 就绪
+  java -cp "$WORK" LoadTest "http://localhost:$port" 50 3000 > /dev/null
+  local result
+  result=$(java -cp "$WORK" LoadTest "http://localhost:$port" "$CONCURRENCY" "$DURATION_MS")
+  local threads heap
+  threads=$(metric "$port" jvm.threads.peak)
+  heap=$(metric "$port" 'jvm.memory.used?tag=area:heap' | awk '{ printf "%.0f", $1 / 1048576 }')
+  printf '%-30s %s threads.peak=%s heap.used=%sMB\n' "$module" "$result" "$threads" "$heap"
+  kill "$pid"
+}
+
+echo "concurrency=$CONCURRENCY duration=${DURATION_MS}ms stub-delay=${DELAY_MS}ms consumer-cpus=$CPUS"
+# order80 的 RestTemplate 没有 @LoadBalanced，开启一致性哈希后 /get/{id} 才通过实例列表选择服务端
+run cloud-consumer-order80 com.taro.springcloud.OrderMain80 18080 --consumer.lb.hash.enabled=true
+run cloud-consumerwebflux-order85 com.taro.springcloud.OrderWebFluxMain85 18085
@@ -0,0 +1,23 @@
+package com.taro.springcloud;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
+
+/**
+ * ClassName OrderWebFluxMain85
+ * Author taro
+ * Date 2026/10/18 21:00
+ * Version 1.0
+ */
+
+@SpringBootApplication
+@EnableEurekaClient
+@EnableDiscoveryClient
+public class OrderWebFluxMain85 {
+
+    public static void main(String[] args) {
+        SpringApplication.run(OrderWebFluxMain85.class, args);
+    }
+}
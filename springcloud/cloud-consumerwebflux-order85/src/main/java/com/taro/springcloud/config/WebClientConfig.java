@@ -0,0 +1,34 @@
+package com.taro.springcloud.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * ClassName WebClientConfig
+ * Author taro
+ * Date 2026/10/18 21:05
+ * Version 1.0
+ */
+
+@Configuration
+public class WebClientConfig {
+
+    //等待服务端响应时不占用线程，并发请求数只受连接数限制
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder webClientBuilder(@Value("${consumer.webclient.max-connections:500}") int maxConnections,
+                                              @Value("${consumer.webclient.acquire-timeout-ms:500}") long acquireTimeoutMs,
+                                              @Value("${consumer.webclient.connect-timeout-ms:1000}") int connectTimeoutMs) {
+        ConnectionProvider provider = ConnectionProvider.fixed("payment", maxConnections, acquireTimeoutMs);
+        HttpClient httpClient = HttpClient.create(provider)
+                .tcpConfiguration(tcp -> tcp.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs));
+        return WebClient.builder().clientConnector(new ReactorClientHttpConnector(httpClient));
+    }
+}
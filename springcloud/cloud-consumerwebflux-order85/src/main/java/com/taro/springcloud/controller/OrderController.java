@@ -0,0 +1,62 @@
+package com.taro.springcloud.controller;
+
+import com.taro.springcloud.entities.CommonResult;
+import com.taro.springcloud.entities.Payment;
+import com.taro.springcloud.service.PaymentClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * ClassName OrderController
+ * Author taro
+ * Date 2026/10/18 21:20
+ * Version 1.0
+ */
+
+//和 cloud-consumer-order80 的 /consumer/payment/* 接口一致，等待服务端时不占用线程
+@RestController
+@Slf4j
+@RequestMapping("/consumer/payment")
+public class OrderController {
+
+    @Autowired
+    private PaymentClient paymentClient;
+
+    @GetMapping("/create")
+    public Mono<CommonResult<Integer>> create(Payment payment) {
+        return paymentClient.create(payment);
+    }
+
+    @GetMapping("/get/{id}")
+    public Mono<CommonResult<Payment>> getPayment(@PathVariable("id") Long id) {
+        return paymentClient.getPayment(id);
+    }
+
+    @GetMapping("/get/batch")
+    public Mono<CommonResult<List<Payment>>> getPayments(@RequestParam("ids") List<Long> ids) {
+        //并行查询每个 id，不依赖服务端的批量接口
+        return paymentClient.getPayments(ids)
+                .map(payments -> new CommonResult<>(200, "查询成功", payments))
+                .onErrorResume(e -> {
+                    log.warn("批量查询 {} 失败", ids, e);
+                    return Mono.just(new CommonResult<>(444, "操作失败"));
+                });
+    }
+
+    @GetMapping("/getEntity/{id}")
+    public Mono<CommonResult<Payment>> getEntity(@PathVariable("id") Long id) {
+        return paymentClient.getPaymentEntity(id)
+                .map(entity -> entity.getStatusCode().is2xxSuccessful()
+                        ? entity.getBody()
+                        : new CommonResult<>(444, "操作失败"));
+    }
+
+    @GetMapping("/lb")
+    public Mono<String> getPaymentLB() {
+        return paymentClient.getServerPort();
+    }
+}
@@ -0,0 +1,92 @@
+package com.taro.springcloud.service;
+
+import com.taro.springcloud.entities.CommonResult;
+import com.taro.springcloud.entities.Payment;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * ClassName PaymentClient
+ * Author taro
+ * Date 2026/10/18 21:10
+ * Version 1.0
+ */
+
+//通过负载均衡的 WebClient 调用 CLOUD-PAYMENT-SERVICE，所有方法都不阻塞
+@Service
+public class PaymentClient {
+
+    public static final String PAYMENT_URL = "http://CLOUD-PAYMENT-SERVICE";
+
+    private static final ParameterizedTypeReference<CommonResult<Payment>> PAYMENT_RESULT =
+            new ParameterizedTypeReference<CommonResult<Payment>>() {};
+
+    private static final ParameterizedTypeReference<CommonResult<Integer>> CREATE_RESULT =
+            new ParameterizedTypeReference<CommonResult<Integer>>() {};
+
+    private final WebClient webClient;
+
+    private final Duration timeout;
+
+    //扇出时同时进行的请求数
+    private final int fanOutConcurrency;
+
+    public PaymentClient(WebClient.Builder webClientBuilder,
+                         @Value("${consumer.webclient.response-timeout-ms:5000}") long responseTimeoutMs,
+                         @Value("${consumer.webclient.fan-out-concurrency:16}") int fanOutConcurrency) {
+        this.webClient = webClientBuilder.baseUrl(PAYMENT_URL).build();
+        this.timeout = Duration.ofMillis(responseTimeoutMs);
+        this.fanOutConcurrency = fanOutConcurrency;
+    }
+
+    public Mono<CommonResult<Integer>> create(Payment payment) {
+        return webClient.post().uri("/payment/create")
+                .bodyValue(payment)
+                .retrieve()
+                .bodyToMono(CREATE_RESULT)
+                .timeout(timeout);
+    }
+
+    public Mono<CommonResult<Payment>> getPayment(Long id) {
+        return webClient.get().uri("/payment/get/{id}", id)
+                .retrieve()
+                .bodyToMono(PAYMENT_RESULT)
+                .timeout(timeout);
+    }
+
+    //保留状态码，由调用方判断是否成功
+    public Mono<ResponseEntity<CommonResult<Payment>>> getPaymentEntity(Long id) {
+        return webClient.get().uri("/payment/get/{id}", id)
+                .exchange()
+                .flatMap(response -> response.toEntity(PAYMENT_RESULT))
+                .timeout(timeout);
+    }
+
+    /**
+     * 并行查询多个 id，最多同时 fan-out-concurrency 个请求，结果按 ids 的顺序返回，查不到的 id 跳过。
+     * 任意一个请求失败时取消其余请求并返回错误。
+     * 只依赖 /payment/get/{id}，每个 id 单独经过负载均衡，可以分散到多个实例上。
+     */
+    public Mono<List<Payment>> getPayments(List<Long> ids) {
+        return Flux.fromIterable(ids)
+                .flatMapSequential(this::getPayment, fanOutConcurrency)
+                .filter(result -> result.getCode() != null && result.getCode() == 200 && result.getData() != null)
+                .map(CommonResult::getData)
+                .collectList();
+    }
+
+    public Mono<String> getServerPort() {
+        return webClient.get().uri("/payment/lb")
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(timeout);
+    }
+}
@@ -1,8 +1,8 @@
 package com.taro.springcloud.service;
 
-import cn.hutool.core.util.IdUtil;
 import com.netflix.hystrix.contrib.javanica.annotation.HystrixCommand;
 import com.netflix.hystrix.contrib.javanica.annotation.HystrixProperty;
+import com.taro.springcloud.utils.SerialGenerator;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.PathVariable;
 
@@ -51,7 +51,7 @@ public class PaymentService {
         if (id < 0){
             throw new RuntimeException("*****id 不能负数");
         }
-        String serialNumber = IdUtil.simpleUUID();
+        String serialNumber = SerialGenerator.nextHex();
 
         return Thread.currentThread().getName()+"\t"+"调用成功,流水号："+serialNumber;
     }
@@ -0,0 +1,34 @@
+package com.taro.springcloud.config;
+
+import com.netflix.appinfo.ApplicationInfoManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+
+/**
+ * ClassName InstanceMetadataConfig
+ * Author taro
+ * Date 2026/10/18 13:10
+ * Version 1.0
+ */
+
+@Configuration
+public class InstanceMetadataConfig {
+
+    //eureka.client.enabled=false 时不存在
+    @Autowired(required = false)
+    private ApplicationInfoManager applicationInfoManager;
+
+    //注册到 eureka 之前写入进程启动时间（毫秒），消费者据此对新实例逐步加大流量
+    @PostConstruct
+    public void publishStartTime() {
+        if (applicationInfoManager == null) {
+            return;
+        }
+        long startTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+        applicationInfoManager.registerAppMetadata(Collections.singletonMap("startTime", String.valueOf(startTime)));
+    }
+}
@@ -0,0 +1,30 @@
+package com.taro.springcloud.config;
+
+import com.taro.springcloud.handler.SerialTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.mybatis.spring.boot.autoconfigure.ConfigurationCustomizer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * ClassName MyBatisConfig
+ * Author taro
+ * Date 2026/10/18 17:42
+ * Version 1.0
+ */
+
+@Configuration
+public class MyBatisConfig {
+
+    //varchar：serial 列为 VARCHAR；binary：serial 列为 BINARY(16)，需要先执行 sql/payment_serial_binary.sql
+    @Value("${payment.serial.storage:varchar}")
+    private String serialStorage;
+
+    //注册配置好的实例，mapper 中 typeHandler 引用 SerialTypeHandler 时取到的就是它
+    @Bean
+    public ConfigurationCustomizer serialTypeHandlerCustomizer() {
+        SerialTypeHandler handler = new SerialTypeHandler("binary".equalsIgnoreCase(serialStorage));
+        return configuration -> configuration.getTypeHandlerRegistry().register(String.class, JdbcType.BINARY, handler);
+    }
+}
@@ -0,0 +1,56 @@
+package com.taro.springcloud.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taro.springcloud.entities.Payment;
+import com.taro.springcloud.utils.SingleFlight;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassName PaymentCacheConfig
+ * Author taro
+ * Date 2026/10/18 10:12
+ * Version 1.0
+ */
+
+@Configuration
+public class PaymentCacheConfig {
+
+    @Value("${payment.cache.maximum-size:100000}")
+    private long maximumSize;
+
+    @Value("${payment.cache.expire-after-write-seconds:3600}")
+    private long expireAfterWriteSeconds;
+
+    //Caffeine 的淘汰策略是 W-TinyLFU，按访问频率决定是否接纳新条目
+    @Bean
+    public Cache<Long, Payment> paymentCache(MeterRegistry meterRegistry) {
+        Cache<Long, Payment> cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        //命中、未命中、淘汰等指标通过 /actuator/metrics/cache.* 查看
+        return CaffeineCacheMetrics.monitor(meterRegistry, cache, "payment");
+    }
+
+    //缓存未命中时，同一个 id 的并发查询只发一条 sql
+    @Bean
+    public SingleFlight<Long, Payment> paymentLoadSingleFlight(MeterRegistry meterRegistry) {
+        SingleFlight<Long, Payment> singleFlight = new SingleFlight<>();
+        FunctionCounter.builder("payment.singleflight.coalesced", singleFlight, SingleFlight::coalescedCount)
+                .description("与其他线程合并、没有单独查询数据库的次数")
+                .register(meterRegistry);
+        Gauge.builder("payment.singleflight.in-flight", singleFlight, SingleFlight::inFlightCount)
+                .register(meterRegistry);
+        return singleFlight;
+    }
+}
@@ -0,0 +1,50 @@
+package com.taro.springcloud.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ClassName PaymentExecutorConfig
+ * Author taro
+ * Date 2026/10/18 23:30
+ * Version 1.0
+ */
+
+@Configuration
+public class PaymentExecutorConfig {
+
+    /**
+     * 开启异步模式后，AsyncPaymentController 中访问数据库的请求交给这个线程池执行，tomcat 线程立即返回。
+     * 队列有界，满了直接拒绝（controller 返回 503），数据库变慢时不会拖住 /payment/lb 等不查库的接口。
+     */
+    @Bean(name = "paymentDbExecutor", destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "payment.async", name = "enabled", havingValue = "true")
+    public ExecutorService boundedPaymentDbExecutor(MeterRegistry meterRegistry,
+                                             @Value("${payment.async.core-threads:16}") int coreThreads,
+                                             @Value("${payment.async.max-threads:32}") int maxThreads,
+                                             @Value("${payment.async.queue-capacity:200}") int queueCapacity,
+                                             @Value("${payment.async.keep-alive-seconds:60}") long keepAliveSeconds) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = r -> {
+            Thread thread = new Thread(r, "payment-db-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(coreThreads, maxThreads, keepAliveSeconds, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        //线程数、队列长度、拒绝前的排队时间等指标通过 /actuator/metrics/executor.* 查看
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "payment.db", Tags.empty());
+    }
+}
@@ -0,0 +1,80 @@
+package com.taro.springcloud.config;
+
+import com.alibaba.druid.filter.Filter;
+import com.alibaba.druid.pool.DruidDataSource;
+import com.taro.springcloud.datasource.ReadWriteProperties;
+import com.taro.springcloud.datasource.ReadWriteRouteAspect;
+import com.taro.springcloud.datasource.ReadWriteRoutingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ClassName ReadWriteDataSourceConfig
+ * Author taro
+ * Date 2026/10/18 19:50
+ * Version 1.0
+ */
+
+//payment.read-write.enabled=true 时读写分离：spring.datasource 为主库，payment.read-write.replicas 为从库
+@Configuration
+@EnableConfigurationProperties(ReadWriteProperties.class)
+@ConditionalOnProperty(prefix = "payment.read-write", name = "enabled", havingValue = "true")
+public class ReadWriteDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, ReadWriteProperties readWriteProperties,
+                                 Environment environment, ObjectProvider<Filter> filters) {
+        Binder binder = Binder.get(environment);
+        List<Filter> proxyFilters = new ArrayList<>();
+        filters.orderedStream().forEach(proxyFilters::add);
+        DruidDataSource primary = druid(binder, dataSourceProperties, proxyFilters);
+        //url 等没有在 spring.datasource.druid 中单独设置时使用 spring.datasource 的值，与 druid starter 创建的数据源相同
+        if (!StringUtils.hasText(primary.getUrl())) {
+            primary.setUrl(dataSourceProperties.determineUrl());
+        }
+        if (!StringUtils.hasText(primary.getUsername())) {
+            primary.setUsername(dataSourceProperties.determineUsername());
+        }
+        if (!StringUtils.hasText(primary.getPassword())) {
+            primary.setPassword(dataSourceProperties.determinePassword());
+        }
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReadWriteProperties.Replica replica : readWriteProperties.getReplicas()) {
+            DruidDataSource druid = druid(binder, dataSourceProperties, proxyFilters);
+            druid.setUrl(replica.getUrl());
+            druid.setUsername(StringUtils.hasText(replica.getUsername()) ? replica.getUsername() : primary.getUsername());
+            druid.setPassword(StringUtils.hasText(replica.getPassword()) ? replica.getPassword() : primary.getPassword());
+            replicas.add(druid);
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, readWriteProperties.getHealthCheckIntervalMillis(),
+                readWriteProperties.getHealthCheckTimeoutSeconds());
+    }
+
+    //从库使用和主库相同的 spring.datasource.druid 连接池配置和过滤器
+    private static DruidDataSource druid(Binder binder, DataSourceProperties dataSourceProperties, List<Filter> filters) {
+        DruidDataSource druid = new DruidDataSource();
+        binder.bind("spring.datasource.druid", Bindable.ofInstance(druid));
+        if (!StringUtils.hasText(druid.getDriverClassName())) {
+            druid.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        }
+        druid.getProxyFilters().addAll(filters);
+        return druid;
+    }
+
+    @Bean
+    public ReadWriteRouteAspect readWriteRouteAspect(ReadWriteProperties readWriteProperties) {
+        return new ReadWriteRouteAspect(readWriteProperties.getStickyMillis());
+    }
+}
@@ -0,0 +1,114 @@
+package com.taro.springcloud.controller;
+
+import brave.propagation.CurrentTraceContext;
+import com.taro.springcloud.entities.CommonResult;
+import com.taro.springcloud.entities.Payment;
+import com.taro.springcloud.service.PaymentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * ClassName AsyncPaymentController
+ * Author taro
+ * Date 2026/10/18 23:50
+ * Version 1.0
+ */
+
+/**
+ * payment.async.enabled=true 时代替 SyncPaymentController：访问数据库的请求交给 paymentDbExecutor，tomcat 线程立即返回。
+ */
+@RestController
+@Slf4j
+@RequestMapping("/payment")
+@ConditionalOnProperty(prefix = "payment.async", name = "enabled", havingValue = "true")
+public class AsyncPaymentController {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    @Qualifier("paymentDbExecutor")
+    private ExecutorService paymentDbExecutor;
+
+    @Autowired
+    private CurrentTraceContext currentTraceContext;
+
+    @Value("${server.port}")
+    private String serverPort;
+
+    @PostMapping("/create")
+    public CompletableFuture<CommonResult<Integer>> create(@RequestBody Payment payment) {
+        return async(() -> {
+            int result = paymentService.create(payment);
+            log.info("插入结果：{}", result);
+            if(result > 0) {
+                return new CommonResult<>(200, "插入成功, serverPort: " + serverPort, result);
+            }else {
+                return new CommonResult<>(404, "插入失败");
+            }
+        });
+    }
+
+    @PostMapping("/create/batch")
+    public CompletableFuture<CommonResult<List<Payment>>> createBatch(@RequestBody List<Payment> payments) {
+        if(payments == null || payments.isEmpty()) {
+            return CompletableFuture.completedFuture(new CommonResult<>(400, "插入数据为空"));
+        }
+        return async(() -> {
+            int result = paymentService.createBatch(payments);
+            log.info("批量插入 {} 条，结果：{}", payments.size(), result);
+            if(result == payments.size()) {
+                return new CommonResult<>(200, "批量插入成功, serverPort: " + serverPort, payments);
+            }else {
+                return new CommonResult<>(404, "批量插入失败");
+            }
+        });
+    }
+
+    @GetMapping("/get/{id}")
+    public CompletableFuture<CommonResult<Payment>> getPaymentById(@PathVariable("id") Long id) {
+        return async(() -> {
+            Payment payment = paymentService.getPaymentById(id);
+            log.info("{} id 的查询结果： {}", id, payment);
+            if(payment != null) {
+                return new CommonResult<>(200, "查询成功" + serverPort, payment);
+            }else {
+                return new CommonResult<>(404, "查询失败");
+            }
+        });
+    }
+
+    @GetMapping("/get/batch")
+    public CompletableFuture<CommonResult<List<Payment>>> getPaymentsByIds(@RequestParam("ids") List<Long> ids) {
+        return async(() -> {
+            List<Payment> payments = paymentService.getPaymentsByIds(ids);
+            log.info("批量查询 {} 个 id，命中 {} 条", ids.size(), payments.size());
+            return new CommonResult<>(200, "查询成功" + serverPort, payments);
+        });
+    }
+
+    @PostMapping("/get/batch")
+    public CompletableFuture<CommonResult<List<Payment>>> getPaymentsByIdList(@RequestBody List<Long> ids) {
+        return getPaymentsByIds(ids);
+    }
+
+    //交给 paymentDbExecutor 执行，线程池和队列都满时立即返回 503，不在 tomcat 线程中排队
+    //任务在 tomcat 线程上包装，payment-db 线程上的日志和下游调用沿用请求的 trace
+    private <T> CompletableFuture<CommonResult<T>> async(Supplier<CommonResult<T>> call) {
+        try {
+            return CompletableFuture.supplyAsync(call, task -> paymentDbExecutor.execute(currentTraceContext.wrap(task)));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(new CommonResult<>(503, "数据库繁忙，请稍后重试"));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.taro.springcloud.controller;
+
+import com.taro.springcloud.entities.CommonResult;
+import com.taro.springcloud.entities.Payment;
+import com.taro.springcloud.service.PaymentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * ClassName SyncPaymentController
+ * Author taro
+ * Date 2026/10/18 23:50
+ * Version 1.0
+ */
+
+/**
+ * 访问数据库的接口，在 tomcat 线程中同步执行。payment.async.enabled=true 时换成 AsyncPaymentController。
+ */
+@RestController
+@Slf4j
+@RequestMapping("/payment")
+@ConditionalOnProperty(prefix = "payment.async", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class SyncPaymentController {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Value("${server.port}")
+    private String serverPort;
+
+    @PostMapping("/create")
+    public CommonResult<Integer> create(@RequestBody Payment payment) {
+        int result = paymentService.create(payment);
+        log.info("插入结果：{}", result);
+        if(result > 0) {
+            return new CommonResult<>(200, "插入成功, serverPort: " + serverPort, result);
+        }else {
+            return new CommonResult<>(404, "插入失败");
+        }
+    }
+
+    @PostMapping("/create/batch")
+    public CommonResult<List<Payment>> createBatch(@RequestBody List<Payment> payments) {
+        if(payments == null || payments.isEmpty()) {
+            return new CommonResult<>(400, "插入数据为空");
+        }
+        int result = paymentService.createBatch(payments);
+        log.info("批量插入 {} 条，结果：{}", payments.size(), result);
+        if(result == payments.size()) {
+            return new CommonResult<>(200, "批量插入成功, serverPort: " + serverPort, payments);
+        }else {
+            return new CommonResult<>(404, "批量插入失败");
+        }
+    }
+
+    @GetMapping("/get/{id}")
+    public CommonResult<Payment> getPaymentById(@PathVariable("id") Long id) {
+        Payment payment = paymentService.getPaymentById(id);
+        log.info("{} id 的查询结果： {}", id, payment);
+        if(payment != null) {
+            return new CommonResult<>(200, "查询成功" + serverPort, payment);
+        }else {
+            return new CommonResult<>(404, "查询失败");
+        }
+    }
+
+    @GetMapping("/get/batch")
+    public CommonResult<List<Payment>> getPaymentsByIds(@RequestParam("ids") List<Long> ids) {
+        List<Payment> payments = paymentService.getPaymentsByIds(ids);
+        log.info("批量查询 {} 个 id，命中 {} 条", ids.size(), payments.size());
+        return new CommonResult<>(200, "查询成功" + serverPort, payments);
+    }
+
+    @PostMapping("/get/batch")
+    public CommonResult<List<Payment>> getPaymentsByIdList(@RequestBody List<Long> ids) {
+        return getPaymentsByIds(ids);
+    }
+}
@@ -0,0 +1,43 @@
+package com.taro.springcloud.datasource;
+
+/**
+ * ClassName DataSourceRoute
+ * Author taro
+ * Date 2026/10/18 19:05
+ * Version 1.0
+ */
+
+//当前线程的 sql 发往哪个库，没有设置时一律走主库
+public final class DataSourceRoute {
+
+    public enum Target {
+        PRIMARY,
+        //@UsePrimary 标记的方法内，嵌套的读操作也不能切到从库
+        FORCED_PRIMARY,
+        REPLICA
+    }
+
+    private static final ThreadLocal<Target> CURRENT = new ThreadLocal<>();
+
+    private DataSourceRoute() {
+    }
+
+    public static Target current() {
+        return CURRENT.get();
+    }
+
+    //返回之前的值，调用方在 finally 中用 restore 还原
+    public static Target set(Target target) {
+        Target previous = CURRENT.get();
+        CURRENT.set(target);
+        return previous;
+    }
+
+    public static void restore(Target previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
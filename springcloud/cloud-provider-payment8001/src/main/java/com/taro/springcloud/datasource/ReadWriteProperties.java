@@ -0,0 +1,40 @@
+package com.taro.springcloud.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ClassName ReadWriteProperties
+ * Author taro
+ * Date 2026/10/18 19:10
+ * Version 1.0
+ */
+
+@Data
+@ConfigurationProperties(prefix = "payment.read-write")
+public class ReadWriteProperties {
+
+    private boolean enabled;
+
+    //写入后这段时间内读同一个 id 仍然走主库，避免读到主从延迟前的数据
+    private long stickyMillis = 1000;
+
+    private long healthCheckIntervalMillis = 5000;
+
+    private int healthCheckTimeoutSeconds = 2;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    //username、password 为空时与主库相同
+    @Data
+    public static class Replica {
+
+        private String url;
+        private String username;
+        private String password;
+
+    }
+}
@@ -0,0 +1,105 @@
+package com.taro.springcloud.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taro.springcloud.entities.Payment;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassName ReadWriteRouteAspect
+ * Author taro
+ * Date 2026/10/18 19:35
+ * Version 1.0
+ */
+
+/**
+ * PaymentDao 中 get、export 开头的方法在事务之外执行时走从库，其余走主库。
+ * 刚写入的 id 在 stickyMillis 内仍然从主库读取（read-your-writes）。
+ */
+@Aspect
+public class ReadWriteRouteAspect {
+
+    //最近写入的 id，过期即认为从库已经同步
+    private final Cache<Long, Boolean> recentWrites;
+
+    public ReadWriteRouteAspect(long stickyMillis) {
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(stickyMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Around("@annotation(com.taro.springcloud.datasource.UsePrimary) || @within(com.taro.springcloud.datasource.UsePrimary)")
+    public Object usePrimary(ProceedingJoinPoint joinPoint) throws Throwable {
+        DataSourceRoute.Target previous = DataSourceRoute.set(DataSourceRoute.Target.FORCED_PRIMARY);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DataSourceRoute.restore(previous);
+        }
+    }
+
+    @Around("execution(* com.taro.springcloud.dao.PaymentDao.*(..))")
+    public Object route(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        boolean read = method.startsWith("get") || method.startsWith("export");
+        if (!read) {
+            Object result = joinPoint.proceed();
+            recordWrites(joinPoint.getArgs());
+            return result;
+        }
+        //事务中的连接在开启事务时就已经绑定到主库
+        if (DataSourceRoute.current() == DataSourceRoute.Target.FORCED_PRIMARY
+                || TransactionSynchronizationManager.isActualTransactionActive()
+                || readsRecentWrite(joinPoint.getArgs())) {
+            return joinPoint.proceed();
+        }
+        DataSourceRoute.Target previous = DataSourceRoute.set(DataSourceRoute.Target.REPLICA);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DataSourceRoute.restore(previous);
+        }
+    }
+
+    private boolean readsRecentWrite(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof Long && recentWrites.getIfPresent(arg) != null) {
+                return true;
+            }
+            if (arg instanceof Collection) {
+                for (Object element : (Collection<?>) arg) {
+                    if (element instanceof Long && recentWrites.getIfPresent(element) != null) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private void recordWrites(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof Payment) {
+                recordWrite((Payment) arg);
+            } else if (arg instanceof Collection) {
+                for (Object element : (Collection<?>) arg) {
+                    if (element instanceof Payment) {
+                        recordWrite((Payment) element);
+                    }
+                }
+            }
+        }
+    }
+
+    private void recordWrite(Payment payment) {
+        if (payment.getId() != null) {
+            recentWrites.put(payment.getId(), Boolean.TRUE);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.taro.springcloud.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ClassName ReadWriteRoutingDataSource
+ * Author taro
+ * Date 2026/10/18 19:20
+ * Version 1.0
+ */
+
+/**
+ * 标记为 REPLICA 的连接在健康的从库之间轮询，其余连接（包括事务）都走主库。
+ * 后台线程定期检测从库，不可用的从库被摘除，全部不可用时读请求退回主库。
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+
+    private final List<String> replicaKeys = new ArrayList<>();
+
+    private final Map<String, DataSource> replicas = new HashMap<>();
+
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private final ScheduledExecutorService healthChecker;
+
+    private final int healthCheckTimeoutSeconds;
+
+    private volatile String[] healthyReplicas;
+
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicaList,
+                                      long healthCheckIntervalMillis, int healthCheckTimeoutSeconds) {
+        this.primary = primary;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicaList.size(); i++) {
+            String key = "replica-" + i;
+            replicaKeys.add(key);
+            replicas.put(key, replicaList.get(i));
+            targets.put(key, replicaList.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        this.healthyReplicas = replicaKeys.toArray(new String[0]);
+        this.healthCheckTimeoutSeconds = healthCheckTimeoutSeconds;
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, healthCheckIntervalMillis,
+                healthCheckIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (DataSourceRoute.current() != DataSourceRoute.Target.REPLICA) {
+            return PRIMARY;
+        }
+        String[] healthy = healthyReplicas;
+        if (healthy.length == 0) {
+            return PRIMARY;
+        }
+        return healthy[(cursor.getAndIncrement() & Integer.MAX_VALUE) % healthy.length];
+    }
+
+    public void close() throws Exception {
+        healthChecker.shutdownNow();
+        for (DataSource replica : replicas.values()) {
+            closeDataSource(replica);
+        }
+        closeDataSource(primary);
+    }
+
+    private static void closeDataSource(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable) {
+            ((AutoCloseable) dataSource).close();
+        }
+    }
+
+    private void checkReplicas() {
+        List<String> healthy = new ArrayList<>(replicaKeys.size());
+        for (String key : replicaKeys) {
+            try (Connection connection = replicas.get(key).getConnection()) {
+                if (connection.isValid(healthCheckTimeoutSeconds)) {
+                    healthy.add(key);
+                    continue;
+                }
+            } catch (SQLException e) {
+                log.debug("从库 {} 检测异常", key, e);
+            }
+            log.warn("从库 {} 不可用，暂时摘除", key);
+        }
+        healthyReplicas = healthy.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,21 @@
+package com.taro.springcloud.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * ClassName UsePrimary
+ * Author taro
+ * Date 2026/10/18 19:08
+ * Version 1.0
+ */
+
+//标记的方法（或类中所有方法）内的读操作都走主库，用于不能容忍主从延迟的场景
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface UsePrimary {
+}
@@ -0,0 +1,14 @@
+package com.taro.springcloud.id;
+
+/**
+ * ClassName IdAllocator
+ * Author taro
+ * Date 2026/10/18 15:20
+ * Version 1.0
+ */
+
+//在本地分配 payment 的 id，插入前就能拿到 id，不再依赖数据库自增
+public interface IdAllocator {
+
+    long nextId();
+}
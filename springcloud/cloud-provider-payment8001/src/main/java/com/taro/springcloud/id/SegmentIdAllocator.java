@@ -0,0 +1,65 @@
+package com.taro.springcloud.id;
+
+import com.taro.springcloud.dao.IdSegmentDao;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ClassName SegmentIdAllocator
+ * Author taro
+ * Date 2026/10/18 15:24
+ * Version 1.0
+ */
+
+/**
+ * 号段模式，号段的分配和预取见 SegmentBuffer。
+ * 号段在单独的线程中申请，分配过程不需要等数据库；当前号段用完而下一段还没申请到时阻塞等待。
+ */
+public class SegmentIdAllocator implements IdAllocator {
+
+    private final SegmentBuffer buffer;
+
+    private final ExecutorService leaseExecutor;
+
+    public SegmentIdAllocator(String bizTag, IdSegmentDao idSegmentDao, TransactionTemplate transactionTemplate) {
+        this.leaseExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "id-segment-lease-" + bizTag);
+            thread.setDaemon(true);
+            return thread;
+        });
+        //先加后查在同一个事务里，行锁保证各节点拿到的号段互不重叠
+        this.buffer = new SegmentBuffer(bizTag, () -> CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            if (idSegmentDao.updateMaxId(bizTag) == 0) {
+                throw new IllegalStateException("id_segment 中没有 bizTag: " + bizTag);
+            }
+            return idSegmentDao.getSegment(bizTag);
+        }), leaseExecutor));
+    }
+
+    public void init() {
+        buffer.init();
+    }
+
+    public void shutdown() {
+        leaseExecutor.shutdownNow();
+    }
+
+    @Override
+    public long nextId() {
+        for (;;) {
+            long id = buffer.tryNextId();
+            if (id != SegmentBuffer.EXHAUSTED) {
+                return id;
+            }
+            try {
+                buffer.refill().join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.taro.springcloud.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.taro.springcloud.entities.Payment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * ClassName PaymentCacheWarmer
+ * Author taro
+ * Date 2026/10/18 11:10
+ * Version 1.0
+ */
+
+/**
+ * 缓存预热：定期把本地缓存中访问最频繁的 id 写入快照文件，停机时再写一次；
+ * 启动时按快照批量查询填充缓存，完成或超时后才继续启动后面的 Lifecycle。
+ * Eureka 注册（EurekaAutoServiceRegistration，phase 0）和 tomcat 开始监听都在预热之后。
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "payment.warm-up", name = "enabled", havingValue = "true")
+public class PaymentCacheWarmer implements SmartLifecycle {
+
+    //必须小于 EurekaAutoServiceRegistration 的 phase 0
+    private static final int PHASE = -100;
+
+    private static final int LOAD_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private Cache<Long, Payment> paymentCache;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Value("${payment.warm-up.snapshot-file:data/payment-hot-set.txt}")
+    private String snapshotFile;
+
+    //快照中最多保存多少个 id
+    @Value("${payment.warm-up.top-n:10000}")
+    private int topN;
+
+    @Value("${payment.warm-up.snapshot-interval-seconds:60}")
+    private long snapshotIntervalSeconds;
+
+    //超时后不再等待，剩余的数据在后台继续加载
+    @Value("${payment.warm-up.timeout-seconds:30}")
+    private long timeoutSeconds;
+
+    private ScheduledExecutorService scheduler;
+
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        warmUp();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "payment-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::writeSnapshot, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        scheduler.shutdownNow();
+        writeSnapshot();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void warmUp() {
+        List<Long> ids = readSnapshot();
+        if (ids.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        CompletableFuture<Integer> loading = new CompletableFuture<>();
+        Thread loader = new Thread(() -> {
+            try {
+                loading.complete(load(ids));
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+            }
+        }, "payment-warm-up-loader");
+        loader.setDaemon(true);
+        loader.start();
+        try {
+            int loaded = loading.get(timeoutSeconds, TimeUnit.SECONDS);
+            log.info("缓存预热完成，快照 {} 个 id，加载 {} 条，耗时 {} ms", ids.size(), loaded, System.currentTimeMillis() - start);
+        } catch (TimeoutException e) {
+            log.warn("缓存预热超过 {} 秒，继续启动，剩余数据在后台加载", timeoutSeconds);
+        } catch (ExecutionException e) {
+            log.warn("缓存预热失败，继续启动", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //getPaymentsByIds 会把查到的数据放入缓存
+    private int load(List<Long> ids) {
+        int loaded = 0;
+        for (int from = 0; from < ids.size(); from += LOAD_CHUNK_SIZE) {
+            int to = Math.min(from + LOAD_CHUNK_SIZE, ids.size());
+            loaded += paymentService.getPaymentsByIds(ids.subList(from, to)).size();
+        }
+        return loaded;
+    }
+
+    private List<Long> readSnapshot() {
+        Path path = Paths.get(snapshotFile);
+        if (!Files.exists(path)) {
+            log.info("没有缓存快照 {}，跳过预热", path.toAbsolutePath());
+            return Collections.emptyList();
+        }
+        List<Long> ids = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null && ids.size() < topN) {
+                if (!line.isEmpty()) {
+                    ids.add(Long.parseLong(line.trim()));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            log.warn("读取缓存快照 {} 失败，跳过预热", path.toAbsolutePath(), e);
+            return Collections.emptyList();
+        }
+        return ids;
+    }
+
+    //按访问频率从高到低写入，先写临时文件再替换，进程中途退出不会留下半个快照
+    private void writeSnapshot() {
+        Map<Long, Payment> hottest = paymentCache.policy().eviction()
+                .map(eviction -> eviction.hottest(topN))
+                .orElse(Collections.emptyMap());
+        if (hottest.isEmpty()) {
+            return;
+        }
+        Path path = Paths.get(snapshotFile).toAbsolutePath();
+        try {
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Long id : hottest.keySet()) {
+                    writer.write(id.toString());
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("写入缓存快照 {} 失败", path, e);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.taro.springcloud.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taro.springcloud.dao.PaymentDao;
+import com.taro.springcloud.datasource.DataSourceRoute;
+import com.taro.springcloud.id.IdAllocator;
+import com.taro.springcloud.utils.ScalableBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ClassName PaymentNegativeLookup
+ * Author taro
+ * Date 2026/10/18 21:40
+ * Version 1.0
+ */
+
+/**
+ * 不存在的 id 不查库直接返回：
+ * 1. 布隆过滤器记录所有已存在的 id，启动时从库中全量构建并定期重建，本节点 create 时追加；
+ *    其他节点新写入的 id 本节点不知道，所以只对不超过 watermark 的 id 下结论。
+ *    自增 id 可能在扫描之后才以较小的值提交（长事务、其他节点的写入），所以 watermark 取扫描前主库的最大 id
+ *    再减去 watermark-lag，更大的 id 一律查库。watermark-lag 需要大于最长的写事务期间全库新分配的 id 数。
+ * 2. 查库确认不存在的 id 在短时间内缓存，挡住对同一个 id 的重试。
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "payment.negative-lookup", name = "enabled", havingValue = "true")
+public class PaymentNegativeLookup {
+
+    @Autowired
+    private PaymentDao paymentDao;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    //号段模式下其他节点可能在 watermark 以下写入新 id，此时只使用未命中缓存
+    @Autowired(required = false)
+    private IdAllocator idAllocator;
+
+    @Value("${payment.negative-lookup.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${payment.negative-lookup.fpp:0.01}")
+    private double fpp;
+
+    @Value("${payment.negative-lookup.watermark-lag:10000}")
+    private long watermarkLag;
+
+    @Value("${payment.negative-lookup.rebuild-interval-minutes:10}")
+    private long rebuildIntervalMinutes;
+
+    @Value("${payment.negative-lookup.miss-ttl-seconds:5}")
+    private long missTtlSeconds;
+
+    @Value("${payment.negative-lookup.miss-cache-size:100000}")
+    private long missCacheSize;
+
+    private Cache<Long, Boolean> confirmedMisses;
+
+    //还没构建完成时为 null，此时不拦截任何请求；过滤器和它的 watermark 一起替换
+    private volatile Snapshot snapshot;
+
+    //重建期间 create 的 id 需要同时写入新旧两个过滤器
+    private volatile ScalableBloomFilter rebuilding;
+
+    private ScheduledExecutorService rebuilder;
+
+    private Counter bloomHits;
+
+    private Counter missCacheHits;
+
+    @PostConstruct
+    public void start() {
+        confirmedMisses = Caffeine.newBuilder()
+                .maximumSize(missCacheSize)
+                .expireAfterWrite(missTtlSeconds, TimeUnit.SECONDS)
+                .build();
+        bloomHits = Counter.builder("payment.negative-lookup.hits").tag("source", "bloom").register(meterRegistry);
+        missCacheHits = Counter.builder("payment.negative-lookup.hits").tag("source", "miss-cache").register(meterRegistry);
+        Gauge.builder("payment.bloom.expected-fpp", this, lookup -> lookup.snapshot == null ? 0 : lookup.snapshot.filter.expectedFpp())
+                .register(meterRegistry);
+        Gauge.builder("payment.bloom.memory", this, lookup -> lookup.snapshot == null ? 0 : lookup.snapshot.filter.memoryBytes())
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("payment.bloom.count", this, lookup -> lookup.snapshot == null ? 0 : lookup.snapshot.filter.count())
+                .register(meterRegistry);
+        if (idAllocator != null) {
+            log.warn("号段模式下不启用布隆过滤器，只缓存确认不存在的 id");
+            return;
+        }
+        rebuilder = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "payment-bloom-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rebuilder.scheduleWithFixedDelay(this::rebuild, 0, rebuildIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (rebuilder != null) {
+            rebuilder.shutdownNow();
+        }
+    }
+
+    //返回 true 表示可以确定 id 不存在
+    public boolean isKnownMissing(Long id) {
+        Snapshot current = snapshot;
+        if (current != null && id <= current.watermark && !current.filter.mightContain(id)) {
+            bloomHits.increment();
+            return true;
+        }
+        if (confirmedMisses.getIfPresent(id) != null) {
+            missCacheHits.increment();
+            return true;
+        }
+        return false;
+    }
+
+    public void recordMiss(Long id) {
+        confirmedMisses.put(id, Boolean.TRUE);
+    }
+
+    //先读 rebuilding 再读 snapshot：读到 rebuilding 为 null 时，要么重建还没开始（之后的扫描会包含这个 id），
+    //要么新过滤器已经换上
+    public void recordCreated(Long id) {
+        confirmedMisses.invalidate(id);
+        ScalableBloomFilter building = rebuilding;
+        if (building != null) {
+            building.put(id);
+        }
+        Snapshot current = snapshot;
+        if (current != null) {
+            current.filter.put(id);
+        }
+    }
+
+    private void rebuild() {
+        //从库可能落后于主库，构建用的数据必须来自主库
+        DataSourceRoute.Target previous = DataSourceRoute.set(DataSourceRoute.Target.FORCED_PRIMARY);
+        try {
+            Snapshot current = snapshot;
+            long count = current == null ? expectedInsertions : Math.max(expectedInsertions, current.filter.count());
+            ScalableBloomFilter building = new ScalableBloomFilter(count, fpp);
+            rebuilding = building;
+            long start = System.currentTimeMillis();
+            //在扫描之前读取：扫描开始时已经提交、不超过这个值的 id 一定会被扫描到
+            long highWater = paymentDao.getMaxId();
+            paymentDao.exportPaymentIds(context -> building.put(context.getResultObject()));
+            long watermark = highWater - watermarkLag;
+            snapshot = new Snapshot(building, watermark);
+            rebuilding = null;
+            log.info("布隆过滤器构建完成，{} 个 id，watermark: {}，占用 {} 字节，预计误判率 {}，耗时 {} ms",
+                    building.count(), watermark, building.memoryBytes(), building.expectedFpp(),
+                    System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            rebuilding = null;
+            log.error("布隆过滤器构建失败", e);
+        } finally {
+            DataSourceRoute.restore(previous);
+        }
+    }
+
+    private static final class Snapshot {
+
+        final ScalableBloomFilter filter;
+
+        //只对不超过这个值的 id 使用过滤器
+        final long watermark;
+
+        Snapshot(ScalableBloomFilter filter, long watermark) {
+            this.filter = filter;
+            this.watermark = watermark;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.taro.springcloud.service;
+
+import com.taro.springcloud.entities.Payment;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ClassName PaymentWriteBehindService
+ * Author taro
+ * Date 2026/10/18 14:05
+ * Version 1.0
+ */
+
+//异步写入：请求只负责入队，由单独的写线程攒批后用一个事务提交
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "payment.write-behind", name = "enabled", havingValue = "true")
+public class PaymentWriteBehindService {
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${payment.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    //攒够 batch-size 条或等待超过 max-delay-ms 就提交一次
+    @Value("${payment.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${payment.write-behind.max-delay-ms:10}")
+    private long maxDelayMs;
+
+    //队列满时最多等待多久，0 表示立即拒绝
+    @Value("${payment.write-behind.offer-timeout-ms:0}")
+    private long offerTimeoutMs;
+
+    private BlockingQueue<PendingPayment> queue;
+
+    private DistributionSummary batchSizeSummary;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    //submit 持有读锁完成检查和入队，stop 持有写锁修改 running，之后不会再有数据入队
+    private final ReadWriteLock submitLock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("payment.write-behind.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        batchSizeSummary = DistributionSummary.builder("payment.write-behind.batch.size").register(meterRegistry);
+        running = true;
+        writer = new Thread(this::runWriter, "payment-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    //停止接收新请求，把队列中剩余的数据写完再退出；超时没写完的以异常结束，不让调用方一直等待
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        submitLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            submitLock.writeLock().unlock();
+        }
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        List<PendingPayment> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.warn("停止时还有 {} 条没有写入", remaining.size());
+            fail(remaining, new RejectedExecutionException("写入服务已停止"));
+        }
+    }
+
+    /**
+     * 提交一条待写入的 payment，写入成功后 future 中的 payment 已回填 id；
+     * 队列已满或服务已停止时 future 以 RejectedExecutionException 结束
+     */
+    public CompletableFuture<Payment> submit(Payment payment) {
+        PendingPayment pending = new PendingPayment(payment);
+        boolean accepted = false;
+        submitLock.readLock().lock();
+        try {
+            if (!running) {
+                pending.future.completeExceptionally(new RejectedExecutionException("写入服务已停止"));
+                return pending.future;
+            }
+            accepted = offerTimeoutMs > 0
+                    ? queue.offer(pending, offerTimeoutMs, TimeUnit.MILLISECONDS)
+                    : queue.offer(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            submitLock.readLock().unlock();
+        }
+        if (!accepted) {
+            pending.future.completeExceptionally(new RejectedExecutionException("写入队列已满"));
+        }
+        return pending.future;
+    }
+
+    private void runWriter() {
+        List<PendingPayment> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingPayment first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingPayment next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                //已经取出还没提交的数据直接以异常结束
+                fail(batch, new RejectedExecutionException("写入线程被中断"));
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingPayment> batch) {
+        List<Payment> payments = new ArrayList<>(batch.size());
+        for (PendingPayment pending : batch) {
+            payments.add(pending.payment);
+        }
+        try {
+            paymentService.createBatch(payments);
+        } catch (Throwable e) {
+            if (batch.size() == 1) {
+                log.error("写入 {} 失败", batch.get(0).payment, e);
+                fail(batch, e);
+                return;
+            }
+            //整批已经回滚，逐条重试，只让出错的那条失败，不牵连同一批的其他请求
+            log.warn("批量写入 {} 条失败，改为逐条写入", batch.size(), e);
+            for (PendingPayment pending : batch) {
+                createOne(pending);
+            }
+            return;
+        }
+        batchSizeSummary.record(batch.size());
+        for (PendingPayment pending : batch) {
+            pending.future.complete(pending.payment);
+        }
+    }
+
+    private void createOne(PendingPayment pending) {
+        try {
+            if (paymentService.create(pending.payment) > 0) {
+                pending.future.complete(pending.payment);
+            } else {
+                pending.future.completeExceptionally(new IllegalStateException("插入失败"));
+            }
+        } catch (Throwable e) {
+            log.error("写入 {} 失败", pending.payment, e);
+            pending.future.completeExceptionally(e);
+        }
+    }
+
+    private static void fail(List<PendingPayment> batch, Throwable e) {
+        for (PendingPayment pending : batch) {
+            pending.future.completeExceptionally(e);
+        }
+    }
+
+    private static class PendingPayment {
+
+        private final Payment payment;
+
+        private final CompletableFuture<Payment> future = new CompletableFuture<>();
+
+        PendingPayment(Payment payment) {
+            this.payment = payment;
+        }
+    }
+}
@@ -1,10 +1,26 @@
 package com.taro.springcloud.service.impl;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.taro.springcloud.dao.PaymentDao;
 import com.taro.springcloud.entities.Payment;
+import com.taro.springcloud.id.IdAllocator;
+import com.taro.springcloud.service.PaymentNegativeLookup;
 import com.taro.springcloud.service.PaymentService;
+import com.taro.springcloud.utils.SingleFlight;
+import org.apache.ibatis.session.ResultHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * ClassName PaymentServiceImpl
@@ -16,17 +32,144 @@ import org.springframework.stereotype.Service;
 @Service
 public class PaymentServiceImpl implements PaymentService {
 
+    //单条 insert 语句携带的最大行数，避免超过 MySQL 的 max_allowed_packet
+    private static final int BATCH_CHUNK_SIZE = 500;
+
+    //单条 in 查询携带的最大 id 数
+    private static final int QUERY_CHUNK_SIZE = 1000;
+
     //@Resource 是 Java 提供的注解，同样可以注入对象
     @Autowired // Autowired spring 提供的注解
     private PaymentDao paymentDao;
 
+    //payment.id.allocator=segment 时存在，否则 id 由数据库自增生成
+    @Autowired(required = false)
+    private IdAllocator idAllocator;
+
+    //payment 写入后不再修改，可以放心缓存
+    @Autowired
+    private Cache<Long, Payment> paymentCache;
+
+    @Autowired
+    private SingleFlight<Long, Payment> paymentLoadSingleFlight;
+
+    //payment.negative-lookup.enabled=true 时存在
+    @Autowired(required = false)
+    private PaymentNegativeLookup negativeLookup;
+
     @Override
     public int create(Payment payment) {
-        return paymentDao.create(payment);
+        int result;
+        if (idAllocator != null) {
+            payment.setId(idAllocator.nextId());
+            result = paymentDao.createWithId(payment);
+        } else {
+            result = paymentDao.create(payment);
+        }
+        if (result > 0) {
+            cacheCreated(payment);
+        }
+        return result;
+    }
+
+    //整批在同一个事务中提交，任意一段失败则整体回滚
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int createBatch(List<Payment> payments) {
+        int result = 0;
+        for (int from = 0; from < payments.size(); from += BATCH_CHUNK_SIZE) {
+            int to = Math.min(from + BATCH_CHUNK_SIZE, payments.size());
+            List<Payment> chunk = payments.subList(from, to);
+            if (idAllocator != null) {
+                chunk.forEach(payment -> payment.setId(idAllocator.nextId()));
+                result += paymentDao.createBatchWithId(chunk);
+            } else {
+                result += paymentDao.createBatch(chunk);
+            }
+        }
+        cacheAfterCommit(payments);
+        return result;
     }
 
     @Override
     public Payment getPaymentById(Long id) {
-        return paymentDao.getPaymentById(id);
+        Payment payment = paymentCache.getIfPresent(id);
+        if (payment != null) {
+            return payment;
+        }
+        if (negativeLookup != null && negativeLookup.isKnownMissing(id)) {
+            return null;
+        }
+        return paymentLoadSingleFlight.execute(id, () -> loadPayment(id));
+    }
+
+    //先写缓存再返回，保证 single flight 结束后到达的请求能命中缓存
+    private Payment loadPayment(Long id) {
+        Payment payment = paymentDao.getPaymentById(id);
+        //不存在的 id 不缓存，避免之后插入的数据读不到
+        if (payment != null) {
+            paymentCache.put(id, payment);
+        } else if (negativeLookup != null) {
+            negativeLookup.recordMiss(id);
+        }
+        return payment;
+    }
+
+    @Override
+    public List<Payment> getPaymentsByIds(List<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        Map<Long, Payment> found = new HashMap<>(paymentCache.getAllPresent(distinct));
+        List<Long> missing = new ArrayList<>();
+        for (Long id : distinct) {
+            if (!found.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        for (int from = 0; from < missing.size(); from += QUERY_CHUNK_SIZE) {
+            int to = Math.min(from + QUERY_CHUNK_SIZE, missing.size());
+            for (Payment payment : paymentDao.getPaymentsByIds(missing.subList(from, to))) {
+                found.put(payment.getId(), payment);
+                paymentCache.put(payment.getId(), payment);
+            }
+        }
+        return inRequestOrder(distinct, found);
+    }
+
+    //导出的数据不经过缓存，逐行交给 handler，不在内存中堆积
+    @Override
+    public void exportPayments(Long afterId, ResultHandler<Payment> handler) {
+        paymentDao.exportPayments(afterId, handler);
+    }
+
+    private static List<Payment> inRequestOrder(Collection<Long> ids, Map<Long, Payment> found) {
+        List<Payment> payments = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            Payment payment = found.get(id);
+            if (payment != null) {
+                payments.add(payment);
+            }
+        }
+        return payments;
+    }
+
+    //事务回滚时回填的 id 无效，所以只在提交后写入缓存
+    private void cacheAfterCommit(List<Payment> payments) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            payments.forEach(this::cacheCreated);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                payments.forEach(PaymentServiceImpl.this::cacheCreated);
+            }
+        });
+    }
+
+    private void cacheCreated(Payment payment) {
+        paymentCache.put(payment.getId(), payment);
+        if (negativeLookup != null) {
+            negativeLookup.recordCreated(payment.getId());
+        }
     }
 }
@@ -0,0 +1,147 @@
+package com.taro.springcloud.datasource;
+
+import com.alibaba.druid.pool.DruidDataSource;
+import com.taro.springcloud.dao.PaymentDao;
+import com.taro.springcloud.entities.Payment;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+
+/**
+ * ClassName ReadWriteRoutingTest
+ * Author taro
+ * Date 2026/10/18 13:50
+ * Version 1.0
+ */
+
+//主库是内存数据库，从库是文件数据库，停掉从库时删除文件，IFEXISTS 让之后的连接直接失败
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "eureka.client.enabled=false",
+        "spring.zipkin.enabled=false",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.url=" + ReadWriteRoutingTest.PRIMARY_URL,
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.druid.max-wait=1000",
+        "payment.read-write.enabled=true",
+        "payment.read-write.sticky-millis=300",
+        "payment.read-write.health-check-interval-millis=200",
+        "payment.read-write.replicas[0].url=" + ReadWriteRoutingTest.REPLICA_URL + ";IFEXISTS=TRUE"
+})
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReadWriteRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:primary;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    static final String REPLICA_URL = "jdbc:h2:./target/h2/replica;MODE=MySQL";
+
+    private static final File REPLICA_FILE = new File("target/h2/replica.mv.db");
+
+    @Autowired
+    private PaymentDao paymentDao;
+
+    @Autowired
+    private DataSource dataSource;
+
+    //主库和从库中 id 为 1 的数据不同，用来区分读的是哪个库
+    @BeforeAll
+    static void createDatabases() throws SQLException {
+        REPLICA_FILE.delete();
+        createPayment(PRIMARY_URL, "primary");
+        createPayment(REPLICA_URL, "replica");
+    }
+
+    @Test
+    @Order(1)
+    void bindsDruidSettingsToPrimaryAndReplica() throws SQLException {
+        Assertions.assertEquals(1000, dataSource.unwrap(DruidDataSource.class).getMaxWait());
+        DataSourceRoute.Target previous = DataSourceRoute.set(DataSourceRoute.Target.REPLICA);
+        try {
+            DruidDataSource replica = dataSource.unwrap(DruidDataSource.class);
+            Assertions.assertEquals(1000, replica.getMaxWait());
+            Assertions.assertEquals(REPLICA_URL + ";IFEXISTS=TRUE", replica.getUrl());
+        } finally {
+            DataSourceRoute.restore(previous);
+        }
+    }
+
+    @Test
+    @Order(2)
+    void readsGoToReplica() {
+        Assertions.assertEquals("replica", paymentDao.getPaymentById(1L).getSerial());
+        Assertions.assertEquals("replica", paymentDao.getPaymentsByIds(Collections.singletonList(1L)).get(0).getSerial());
+    }
+
+    @Test
+    @Order(3)
+    void writesGoToPrimaryAndStickForRecentIds() throws Exception {
+        Payment payment = new Payment(null, "written");
+        Assertions.assertEquals(1, paymentDao.create(payment));
+        Assertions.assertEquals(2, countPayments(PRIMARY_URL));
+        Assertions.assertEquals(1, countPayments(REPLICA_URL));
+
+        //刚写入的 id 从主库读取
+        Assertions.assertEquals("written", paymentDao.getPaymentById(payment.getId()).getSerial());
+        //其他 id 仍然读从库
+        Assertions.assertEquals("replica", paymentDao.getPaymentById(1L).getSerial());
+
+        Thread.sleep(600);
+        Assertions.assertNull(paymentDao.getPaymentById(payment.getId()));
+    }
+
+    //druid 的 max-wait 没有生效时，发往已停掉的从库的读会一直等待
+    @Test
+    @Order(4)
+    @Timeout(30)
+    void fallsBackToPrimaryWhenReplicaIsDown() throws Exception {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("shutdown");
+        }
+        REPLICA_FILE.delete();
+
+        //健康检查摘除从库之前，发往从库的读可能失败
+        long deadline = System.currentTimeMillis() + 10000;
+        String serial = null;
+        while (!"primary".equals(serial) && System.currentTimeMillis() < deadline) {
+            try {
+                serial = paymentDao.getPaymentById(1L).getSerial();
+            } catch (RuntimeException e) {
+                Thread.sleep(100);
+            }
+        }
+        Assertions.assertEquals("primary", serial);
+    }
+
+    private static void createPayment(String url, String serial) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table payment(id bigint auto_increment primary key, serial varchar(200) default '')");
+            statement.execute("insert into payment(id, serial) values(1, '" + serial + "')");
+        }
+    }
+
+    private static int countPayments(String url) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select count(*) from payment")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+}
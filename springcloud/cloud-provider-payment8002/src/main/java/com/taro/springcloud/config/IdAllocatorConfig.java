@@ -0,0 +1,36 @@
+package com.taro.springcloud.config;
+
+import com.taro.springcloud.dao.IdSegmentDao;
+import com.taro.springcloud.id.IdAllocator;
+import com.taro.springcloud.id.SegmentIdAllocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * ClassName IdAllocatorConfig
+ * Author taro
+ * Date 2026/10/18 15:40
+ * Version 1.0
+ */
+
+//payment.id.allocator=segment 时使用号段分配 id，默认仍然是数据库自增
+@Configuration
+@ConditionalOnProperty(prefix = "payment.id", name = "allocator", havingValue = "segment")
+public class IdAllocatorConfig {
+
+    @Value("${payment.id.biz-tag:payment}")
+    private String bizTag;
+
+    @Bean(initMethod = "init", destroyMethod = "shutdown")
+    public IdAllocator idAllocator(IdSegmentDao idSegmentDao, PlatformTransactionManager transactionManager) {
+        //号段可能在插入 payment 的事务中被同步申请，必须单独提交，否则外层回滚会让号段被重复分配
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return new SegmentIdAllocator(bizTag, idSegmentDao, transactionTemplate);
+    }
+}
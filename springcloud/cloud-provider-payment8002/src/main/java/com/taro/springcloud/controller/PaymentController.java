@@ -1,13 +1,22 @@
 package com.taro.springcloud.controller;
 
-import com.taro.springcloud.entities.CommonResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.taro.springcloud.entities.Payment;
 import lombok.extern.slf4j.Slf4j;
+import org.mybatis.spring.MyBatisSystemException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.*;
 import com.taro.springcloud.service.PaymentService;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
 /**
  * ClassName PaymentController
  * Author taro
@@ -23,29 +32,70 @@ public class PaymentController {
     @Autowired
     private PaymentService paymentService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Value("${server.port}")
     private String serverPort;
 
-    @PostMapping("/create")
-    public CommonResult create(@RequestBody Payment payment) {
-        int result = paymentService.create(payment);
-        log.info("插入结果：{}", result);
-        if(result > 0) {
-            return new CommonResult(200, "插入成功, serverPort: " + serverPort, result);
-        }else {
-            return new CommonResult(404, "插入失败");
+    //导出全部 payment，format 支持 ndjson 和 csv，可用 afterId 从上次中断的位置继续
+    @GetMapping("/export")
+    public void export(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                       @RequestParam(value = "afterId", defaultValue = "0") Long afterId,
+                       HttpServletResponse response) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        if(csv) {
+            writer.write("id,serial\n");
+        }
+        long[] count = new long[1];
+        try {
+            paymentService.exportPayments(afterId, context -> {
+                Payment payment = context.getResultObject();
+                try {
+                    if(csv) {
+                        writer.write(payment.getId() + "," + csvField(payment.getSerial()) + "\n");
+                    }else {
+                        writer.write(objectMapper.writeValueAsString(payment));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    //客户端断开时终止查询，释放连接
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (MyBatisSystemException e) {
+            //handler 抛出的异常被 MyBatis 包装过，只有写响应失败才按客户端断开处理
+            if (!(e.getRootCause() instanceof IOException) || !hasCause(e, UncheckedIOException.class)) {
+                throw e;
+            }
+            log.warn("导出在第 {} 条后中断：{}", count[0], e.getRootCause().getMessage());
+            return;
+        }
+        writer.flush();
+        log.info("导出完成，共 {} 条", count[0]);
+    }
+
+    private static boolean hasCause(Throwable e, Class<? extends Throwable> type) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
         }
+        return false;
     }
 
-    @GetMapping("/get/{id}")
-    public CommonResult getPaymentById(@PathVariable("id") Long id) {
-        Payment payment = paymentService.getPaymentById(id);
-        log.info("{} id 的查询结果： {}", id, payment);
-        if(payment != null) {
-            return new CommonResult(200, "查询成功" + serverPort, payment);
-        }else {
-            return new CommonResult(404, "查询失败");
+    private static String csvField(String value) {
+        if(value == null) {
+            return "";
+        }
+        if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
         }
+        return '"' + value.replace("\"", "\"\"") + '"';
     }
 
     @GetMapping("/lb")
@@ -0,0 +1,19 @@
+package com.taro.springcloud.dao;
+
+import com.taro.springcloud.id.IdSegment;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * ClassName IdSegmentDao
+ * Author taro
+ * Date 2026/10/18 15:22
+ * Version 1.0
+ */
+@Mapper
+public interface IdSegmentDao {
+
+    public int updateMaxId(@Param("bizTag") String bizTag);
+
+    public IdSegment getSegment(@Param("bizTag") String bizTag);
+}
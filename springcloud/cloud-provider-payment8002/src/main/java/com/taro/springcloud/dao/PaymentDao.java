@@ -3,6 +3,9 @@ package com.taro.springcloud.dao;
 import com.taro.springcloud.entities.Payment;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.List;
 
 /**
  * ClassName PaymentDao
@@ -15,5 +18,18 @@ public interface PaymentDao {
 
     public int create(Payment payment);
 
+    //多行插入，生成的 id 会回填到每个 payment 中
+    public int createBatch(List<Payment> payments);
+
+    //id 已由 IdAllocator 分配好时使用
+    public int createWithId(Payment payment);
+
+    public int createBatchWithId(List<Payment> payments);
+
     public Payment getPaymentById(@Param("id") Long id);
+
+    public List<Payment> getPaymentsByIds(@Param("ids") List<Long> ids);
+
+    //按 id 顺序流式读取 id 大于 afterId 的全部数据，每读到一行回调一次 handler
+    public void exportPayments(@Param("afterId") Long afterId, ResultHandler<Payment> handler);
 }
@@ -0,0 +1,66 @@
+package com.taro.springcloud.handler;
+
+import com.taro.springcloud.utils.SerialCodec;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * ClassName SerialTypeHandler
+ * Author taro
+ * Date 2026/10/18 17:30
+ * Version 1.0
+ */
+
+/**
+ * payment.serial 的存储方式：varchar 模式下原样读写字符串；
+ * binary 模式下把 32 位十六进制流水号以 16 字节写入 BINARY(16) 列，读出时再转回十六进制。
+ */
+public class SerialTypeHandler extends BaseTypeHandler<String> {
+
+    private final boolean binary;
+
+    //mapper 中直接引用且没有注册实例时使用，等同于 varchar 模式
+    public SerialTypeHandler() {
+        this(false);
+    }
+
+    public SerialTypeHandler(boolean binary) {
+        this.binary = binary;
+    }
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, String parameter, JdbcType jdbcType) throws SQLException {
+        if (!binary) {
+            ps.setString(i, parameter);
+            return;
+        }
+        if (!SerialCodec.isCompactHex(parameter)) {
+            throw new IllegalArgumentException("binary 存储模式只支持 32 位小写十六进制流水号: " + parameter);
+        }
+        ps.setBytes(i, SerialCodec.toBytes(parameter));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return binary ? fromBytes(rs.getBytes(columnName)) : rs.getString(columnName);
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return binary ? fromBytes(rs.getBytes(columnIndex)) : rs.getString(columnIndex);
+    }
+
+    @Override
+    public String getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return binary ? fromBytes(cs.getBytes(columnIndex)) : cs.getString(columnIndex);
+    }
+
+    private static String fromBytes(byte[] bytes) {
+        return bytes == null ? null : SerialCodec.fromBytes(bytes);
+    }
+}
@@ -2,9 +2,19 @@ package com.taro.springcloud.service;
 
 import com.taro.springcloud.entities.Payment;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.List;
 
 public interface PaymentService {
     public int create(Payment payment);
 
+    public int createBatch(List<Payment> payments);
+
     public Payment getPaymentById(@Param("id") Long id);
+
+    //按传入 id 第一次出现的顺序返回，重复的 id 只返回一条，不存在的 id 直接跳过
+    public List<Payment> getPaymentsByIds(List<Long> ids);
+
+    public void exportPayments(Long afterId, ResultHandler<Payment> handler);
 }
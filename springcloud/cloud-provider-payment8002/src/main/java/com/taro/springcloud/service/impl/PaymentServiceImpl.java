@@ -2,9 +2,18 @@ package com.taro.springcloud.service.impl;
 
 import com.taro.springcloud.dao.PaymentDao;
 import com.taro.springcloud.entities.Payment;
+import com.taro.springcloud.id.IdAllocator;
 import com.taro.springcloud.service.PaymentService;
+import org.apache.ibatis.session.ResultHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 
 /**
  * ClassName PaymentServiceImpl
@@ -16,17 +25,79 @@ import org.springframework.stereotype.Service;
 @Service
 public class PaymentServiceImpl implements PaymentService {
 
+    //单条 insert 语句携带的最大行数，避免超过 MySQL 的 max_allowed_packet
+    private static final int BATCH_CHUNK_SIZE = 500;
+
+    //单条 in 查询携带的最大 id 数
+    private static final int QUERY_CHUNK_SIZE = 1000;
+
     //@Resource 是 Java 提供的注解，同样可以注入对象
     @Autowired // Autowired spring 提供的注解
     private PaymentDao paymentDao;
 
+    //payment.id.allocator=segment 时存在，否则 id 由数据库自增生成
+    @Autowired(required = false)
+    private IdAllocator idAllocator;
+
     @Override
     public int create(Payment payment) {
+        if (idAllocator != null) {
+            payment.setId(idAllocator.nextId());
+            return paymentDao.createWithId(payment);
+        }
         return paymentDao.create(payment);
     }
 
+    //整批在同一个事务中提交，任意一段失败则整体回滚
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int createBatch(List<Payment> payments) {
+        int result = 0;
+        for (int from = 0; from < payments.size(); from += BATCH_CHUNK_SIZE) {
+            int to = Math.min(from + BATCH_CHUNK_SIZE, payments.size());
+            List<Payment> chunk = payments.subList(from, to);
+            if (idAllocator != null) {
+                chunk.forEach(payment -> payment.setId(idAllocator.nextId()));
+                result += paymentDao.createBatchWithId(chunk);
+            } else {
+                result += paymentDao.createBatch(chunk);
+            }
+        }
+        return result;
+    }
+
     @Override
     public Payment getPaymentById(Long id) {
         return paymentDao.getPaymentById(id);
     }
+
+    @Override
+    public List<Payment> getPaymentsByIds(List<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, Payment> found = new HashMap<>();
+        for (int from = 0; from < distinct.size(); from += QUERY_CHUNK_SIZE) {
+            int to = Math.min(from + QUERY_CHUNK_SIZE, distinct.size());
+            for (Payment payment : paymentDao.getPaymentsByIds(distinct.subList(from, to))) {
+                found.put(payment.getId(), payment);
+            }
+        }
+        return inRequestOrder(distinct, found);
+    }
+
+    //导出的数据不经过缓存，逐行交给 handler，不在内存中堆积
+    @Override
+    public void exportPayments(Long afterId, ResultHandler<Payment> handler) {
+        paymentDao.exportPayments(afterId, handler);
+    }
+
+    private static List<Payment> inRequestOrder(List<Long> ids, Map<Long, Payment> found) {
+        List<Payment> payments = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            Payment payment = found.get(id);
+            if (payment != null) {
+                payments.add(payment);
+            }
+        }
+        return payments;
+    }
 }
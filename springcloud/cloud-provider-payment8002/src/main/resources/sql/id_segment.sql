@@ -0,0 +1,11 @@
+-- 号段模式（payment.id.allocator=segment）使用的表，所有 payment 节点必须使用同一种 id 分配方式
+create table `id_segment` (
+`biz_tag` varchar(64) not null comment '业务标识',
+`max_id` bigint(20) not null default 0 comment '已经分配出去的最大 id',
+`step` int(11) not null default 1000 comment '每次申请的号段长度',
+`update_time` timestamp not null default current_timestamp on update current_timestamp,
+primary key(`biz_tag`)
+)engine=InnoDB default charset=utf8;
+
+-- 从现有数据的最大 id 之后开始分配
+insert into `id_segment`(`biz_tag`, `max_id`, `step`) select 'payment', ifnull(max(`id`), 0), 1000 from `payment`;
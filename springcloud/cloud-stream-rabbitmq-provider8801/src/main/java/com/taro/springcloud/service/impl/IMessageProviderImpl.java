@@ -1,13 +1,13 @@
 package com.taro.springcloud.service.impl;
 
 import com.taro.springcloud.service.IMessageProvider;
+import com.taro.springcloud.utils.SerialGenerator;
 import org.springframework.cloud.stream.annotation.EnableBinding;
 import org.springframework.cloud.stream.messaging.Source;
 import org.springframework.messaging.MessageChannel;
 import org.springframework.messaging.support.MessageBuilder;
 
 import javax.annotation.Resource;
-import java.util.UUID;
 
 /**
  * ClassName IMessageProviderImpl
@@ -24,7 +24,7 @@ public class IMessageProviderImpl implements IMessageProvider {
 
     @Override
     public String send() {
-        String serial = UUID.randomUUID().toString();
+        String serial = SerialGenerator.nextHex();
         output.send(MessageBuilder.withPayload(serial).build());
         return null;
     }
@@ -0,0 +1,24 @@
+package com.taro.springcloud;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
+
+/**
+ * ClassName PaymentMain8007
+ * Author taro
+ * Date 2026/10/18 10:20
+ * Version 1.0
+ */
+
+@SpringBootApplication
+@EnableEurekaClient
+@EnableDiscoveryClient
+public class PaymentMain8007 {
+
+    public static void main(String[] args) {
+        SpringApplication.run(PaymentMain8007.class, args);
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.taro.springcloud.config;
+
+import com.taro.springcloud.dao.IdSegmentDao;
+import com.taro.springcloud.id.IdAllocator;
+import com.taro.springcloud.id.SegmentIdAllocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+/**
+ * ClassName IdAllocatorConfig
+ * Author taro
+ * Date 2026/10/18 11:30
+ * Version 1.0
+ */
+
+//payment.id.allocator=segment 时使用号段分配 id，与 8001/8002 共用 id_segment 表，混合部署时所有节点必须设置相同
+@Configuration
+@ConditionalOnProperty(prefix = "payment.id", name = "allocator", havingValue = "segment")
+public class IdAllocatorConfig {
+
+    @Value("${payment.id.biz-tag:payment}")
+    private String bizTag;
+
+    //init 中要申请第一个号段，开启 init-schema 时需要先建表
+    @Bean(initMethod = "init")
+    @DependsOn("connectionFactoryInitializer")
+    public IdAllocator idAllocator(IdSegmentDao idSegmentDao, ReactiveTransactionManager transactionManager) {
+        //号段必须单独提交，否则插入 payment 的事务回滚会让号段被重复分配
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return new SegmentIdAllocator(bizTag, idSegmentDao, TransactionalOperator.create(transactionManager, definition));
+    }
+}
@@ -0,0 +1,83 @@
+package com.taro.springcloud.config;
+
+import com.taro.springcloud.handler.SerialColumn;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.config.AbstractR2dbcConfiguration;
+import org.springframework.data.r2dbc.connectionfactory.R2dbcTransactionManager;
+import org.springframework.data.r2dbc.connectionfactory.init.ConnectionFactoryInitializer;
+import org.springframework.data.r2dbc.connectionfactory.init.ResourceDatabasePopulator;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * ClassName R2dbcConfig
+ * Author taro
+ * Date 2026/10/18 10:25
+ * Version 1.0
+ */
+
+//spring boot 2.2 没有 r2dbc 的自动配置，连接工厂在这里创建
+@Configuration
+public class R2dbcConfig extends AbstractR2dbcConfiguration {
+
+    //r2dbc:pool: 前缀表示经过 r2dbc-pool 连接池
+    @Value("${payment.r2dbc.url}")
+    private String url;
+
+    @Value("${payment.r2dbc.username:}")
+    private String username;
+
+    @Value("${payment.r2dbc.password:}")
+    private String password;
+
+    @Value("${payment.r2dbc.init-schema:false}")
+    private boolean initSchema;
+
+    //binary 表示 serial 以 BINARY(16) 保存，与 8001/8002 的设置必须一致
+    @Value("${payment.serial.storage:varchar}")
+    private String serialStorage;
+
+    @Bean
+    @Override
+    public ConnectionFactory connectionFactory() {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (!username.isEmpty()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (!password.isEmpty()) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        return ConnectionFactories.get(options.build());
+    }
+
+    //使用内存数据库时启动建表；总是注册，需要先建表的 bean 可以依赖它
+    @Bean
+    public ConnectionFactoryInitializer connectionFactoryInitializer(ConnectionFactory connectionFactory) {
+        ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
+        initializer.setConnectionFactory(connectionFactory);
+        initializer.setEnabled(initSchema);
+        initializer.setDatabasePopulator(new ResourceDatabasePopulator(new ClassPathResource("schema.sql")));
+        return initializer;
+    }
+
+    @Bean
+    public ReactiveTransactionManager transactionManager(ConnectionFactory connectionFactory) {
+        return new R2dbcTransactionManager(connectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator(ReactiveTransactionManager transactionManager) {
+        return TransactionalOperator.create(transactionManager);
+    }
+
+    @Bean
+    public SerialColumn serialColumn() {
+        return new SerialColumn("binary".equalsIgnoreCase(serialStorage));
+    }
+}
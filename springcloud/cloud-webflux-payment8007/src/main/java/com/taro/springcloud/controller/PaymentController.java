@@ -0,0 +1,137 @@
+package com.taro.springcloud.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taro.springcloud.entities.CommonResult;
+import com.taro.springcloud.entities.Payment;
+import com.taro.springcloud.service.PaymentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ClassName PaymentController
+ * Author taro
+ * Date 2026/10/18 10:40
+ * Version 1.0
+ */
+
+//接口和返回格式与 8001/8002 一致，消费者通过 CLOUD-PAYMENT-SERVICE 负载均衡时不需要区分
+@RestController
+@Slf4j
+@RequestMapping("/payment")
+public class PaymentController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private static final MediaType APPLICATION_NDJSON = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${server.port}")
+    private String serverPort;
+
+    @PostMapping("/create")
+    public Mono<CommonResult<Integer>> create(@RequestBody Payment payment) {
+        return paymentService.create(payment)
+                .map(saved -> {
+                    log.info("插入结果：{}", saved);
+                    return new CommonResult<>(200, "插入成功, serverPort: " + serverPort, 1);
+                })
+                .defaultIfEmpty(new CommonResult<>(404, "插入失败"));
+    }
+
+    @PostMapping("/create/batch")
+    public Mono<CommonResult<List<Payment>>> createBatch(@RequestBody List<Payment> payments) {
+        if (payments == null || payments.isEmpty()) {
+            return Mono.just(new CommonResult<>(400, "插入数据为空"));
+        }
+        return paymentService.createBatch(payments)
+                .map(result -> {
+                    log.info("批量插入 {} 条，结果：{}", payments.size(), result);
+                    if (result == payments.size()) {
+                        return new CommonResult<>(200, "批量插入成功, serverPort: " + serverPort, payments);
+                    }
+                    return new CommonResult<>(404, "批量插入失败");
+                });
+    }
+
+    @GetMapping("/get/{id}")
+    public Mono<CommonResult<Payment>> getPaymentById(@PathVariable("id") Long id) {
+        return paymentService.getPaymentById(id)
+                .map(payment -> {
+                    log.info("{} id 的查询结果： {}", id, payment);
+                    return new CommonResult<>(200, "查询成功" + serverPort, payment);
+                })
+                .defaultIfEmpty(new CommonResult<>(404, "查询失败"));
+    }
+
+    @GetMapping("/get/batch")
+    public Mono<CommonResult<List<Payment>>> getPaymentsByIds(@RequestParam("ids") List<Long> ids) {
+        return paymentService.getPaymentsByIds(ids)
+                .map(payments -> {
+                    log.info("批量查询 {} 个 id，命中 {} 条", ids.size(), payments.size());
+                    return new CommonResult<>(200, "查询成功" + serverPort, payments);
+                });
+    }
+
+    @PostMapping("/get/batch")
+    public Mono<CommonResult<List<Payment>>> getPaymentsByIdList(@RequestBody List<Long> ids) {
+        return getPaymentsByIds(ids);
+    }
+
+    //导出全部 payment，format 支持 ndjson 和 csv，可用 afterId 从上次中断的位置继续；客户端断开时取消查询
+    @GetMapping("/export")
+    public ResponseEntity<Flux<String>> export(@RequestParam(value = "format", defaultValue = "ndjson") String format,
+                                               @RequestParam(value = "afterId", defaultValue = "0") Long afterId) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        AtomicLong count = new AtomicLong();
+        Flux<String> lines = paymentService.exportPayments(afterId)
+                .map(payment -> csv
+                        ? payment.getId() + "," + csvField(payment.getSerial()) + "\n"
+                        : toJson(payment) + "\n")
+                .doOnNext(line -> count.incrementAndGet())
+                .doOnComplete(() -> log.info("导出完成，共 {} 条", count.get()))
+                .doOnCancel(() -> log.warn("导出在第 {} 条后中断", count.get()));
+        return ResponseEntity.ok()
+                .contentType(csv ? TEXT_CSV : APPLICATION_NDJSON)
+                .body(csv ? Flux.just("id,serial\n").concatWith(lines) : lines);
+    }
+
+    private String toJson(Payment payment) {
+        try {
+            return objectMapper.writeValueAsString(payment);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @GetMapping("/lb")
+    public String getServerPort() {
+        return serverPort;
+    }
+}
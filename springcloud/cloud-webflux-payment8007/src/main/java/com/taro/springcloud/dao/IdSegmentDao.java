@@ -0,0 +1,38 @@
+package com.taro.springcloud.dao;
+
+import com.taro.springcloud.id.IdSegment;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * ClassName IdSegmentDao
+ * Author taro
+ * Date 2026/10/18 11:20
+ * Version 1.0
+ */
+
+//与 8001/8002 的 IdSegmentMapper.xml 相同的 sql
+@Repository
+public class IdSegmentDao {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    //返回更新的行数，bizTag 不存在时为 0
+    public Mono<Integer> updateMaxId(String bizTag) {
+        return databaseClient.execute("update id_segment set max_id = max_id + step where biz_tag = :bizTag")
+                .bind("bizTag", bizTag)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<IdSegment> getSegment(String bizTag) {
+        return databaseClient.execute("select biz_tag, max_id, step from id_segment where biz_tag = :bizTag")
+                .bind("bizTag", bizTag)
+                .map(row -> new IdSegment(row.get("biz_tag", String.class), row.get("max_id", Long.class),
+                        row.get("step", Integer.class)))
+                .one();
+    }
+}
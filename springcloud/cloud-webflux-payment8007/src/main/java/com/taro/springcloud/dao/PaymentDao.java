@@ -0,0 +1,91 @@
+package com.taro.springcloud.dao;
+
+import com.taro.springcloud.entities.Payment;
+import com.taro.springcloud.handler.SerialColumn;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ClassName PaymentDao
+ * Author taro
+ * Date 2026/10/18 10:30
+ * Version 1.0
+ */
+
+//Payment 的流水号是自定义的 getter/setter，不用实体映射，直接写 sql
+@Repository
+public class PaymentDao {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    //payment.serial.storage 决定 serial 列的读写方式
+    @Autowired
+    private SerialColumn serialColumn;
+
+    //返回数据库生成的 id
+    public Mono<Long> create(Payment payment) {
+        DatabaseClient.GenericInsertSpec<Map<String, Object>> insert = databaseClient.insert().into("payment");
+        insert = payment.getSerial() == null
+                ? insert.nullValue("serial", serialColumn.type())
+                : insert.value("serial", serialColumn.toColumn(payment.getSerial()));
+        return insert.map(row -> row.get(0, Long.class)).one();
+    }
+
+    //id 已经由 IdAllocator 分配，返回插入的行数
+    public Mono<Integer> createWithId(Payment payment) {
+        return createBatchWithId(Collections.singletonList(payment));
+    }
+
+    //多行一条 insert，返回插入的行数
+    public Mono<Integer> createBatchWithId(List<Payment> payments) {
+        StringBuilder sql = new StringBuilder("insert into payment(id, serial) values ");
+        for (int i = 0; i < payments.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(:id").append(i).append(", :serial").append(i).append(')');
+        }
+        DatabaseClient.GenericExecuteSpec execute = databaseClient.execute(sql.toString());
+        for (int i = 0; i < payments.size(); i++) {
+            Payment payment = payments.get(i);
+            execute = execute.bind("id" + i, payment.getId());
+            execute = payment.getSerial() == null
+                    ? execute.bindNull("serial" + i, serialColumn.type())
+                    : execute.bind("serial" + i, serialColumn.toColumn(payment.getSerial()));
+        }
+        return execute.fetch().rowsUpdated();
+    }
+
+    public Mono<Payment> getPaymentById(Long id) {
+        return databaseClient.execute("select id, serial from payment where id = :id")
+                .bind("id", id)
+                .map(this::toPayment)
+                .one();
+    }
+
+    //ids 为空时调用方直接跳过
+    public Flux<Payment> getPaymentsByIds(List<Long> ids) {
+        return databaseClient.execute("select id, serial from payment where id in (:ids)")
+                .bind("ids", ids)
+                .map(this::toPayment)
+                .all();
+    }
+
+    //按 id 升序逐行返回，由下游的请求量控制读取速度
+    public Flux<Payment> exportPayments(Long afterId) {
+        return databaseClient.execute("select id, serial from payment where id > :afterId order by id")
+                .bind("afterId", afterId)
+                .map(this::toPayment)
+                .all();
+    }
+
+    private Payment toPayment(Row row) {
+        return new Payment(row.get("id", Long.class), serialColumn.read(row, "serial"));
+    }
+}
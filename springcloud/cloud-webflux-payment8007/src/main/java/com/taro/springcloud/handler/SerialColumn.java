@@ -0,0 +1,47 @@
+package com.taro.springcloud.handler;
+
+import com.taro.springcloud.utils.SerialCodec;
+import io.r2dbc.spi.Row;
+
+/**
+ * ClassName SerialColumn
+ * Author taro
+ * Date 2026/10/18 11:00
+ * Version 1.0
+ */
+
+/**
+ * payment.serial 的存储方式，与 8001/8002 的 SerialTypeHandler 一致：varchar 模式下原样读写字符串；
+ * binary 模式下把 32 位十六进制流水号以 16 字节写入 BINARY(16) 列，读出时再转回十六进制。
+ */
+public class SerialColumn {
+
+    private final boolean binary;
+
+    public SerialColumn(boolean binary) {
+        this.binary = binary;
+    }
+
+    //绑定 null 时使用的类型
+    public Class<?> type() {
+        return binary ? byte[].class : String.class;
+    }
+
+    public Object toColumn(String serial) {
+        if (!binary) {
+            return serial;
+        }
+        if (!SerialCodec.isCompactHex(serial)) {
+            throw new IllegalArgumentException("binary 存储模式只支持 32 位小写十六进制流水号: " + serial);
+        }
+        return SerialCodec.toBytes(serial);
+    }
+
+    public String read(Row row, String name) {
+        if (!binary) {
+            return row.get(name, String.class);
+        }
+        byte[] bytes = row.get(name, byte[].class);
+        return bytes == null ? null : SerialCodec.fromBytes(bytes);
+    }
+}
@@ -0,0 +1,16 @@
+package com.taro.springcloud.id;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * ClassName IdAllocator
+ * Author taro
+ * Date 2026/10/18 11:10
+ * Version 1.0
+ */
+
+//在本地分配 payment 的 id，插入前就能拿到 id，不再依赖数据库自增；号段用完需要查库时不阻塞线程
+public interface IdAllocator {
+
+    Mono<Long> nextId();
+}
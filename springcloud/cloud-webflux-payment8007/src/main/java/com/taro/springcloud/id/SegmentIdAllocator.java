@@ -0,0 +1,46 @@
+package com.taro.springcloud.id;
+
+import com.taro.springcloud.dao.IdSegmentDao;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * ClassName SegmentIdAllocator
+ * Author taro
+ * Date 2026/10/18 11:15
+ * Version 1.0
+ */
+
+/**
+ * 号段模式，号段的分配和预取见 SegmentBuffer，与 8001/8002 共用 id_segment 表。
+ * 号段用完而下一段还没申请到时，请求挂在申请的 future 上，不阻塞线程。
+ */
+public class SegmentIdAllocator implements IdAllocator {
+
+    private final SegmentBuffer buffer;
+
+    public SegmentIdAllocator(String bizTag, IdSegmentDao idSegmentDao, TransactionalOperator transactionalOperator) {
+        //先加后查在同一个事务里，行锁保证各节点拿到的号段互不重叠；toFuture 独立订阅，不加入调用方的事务，也不会因为调用方取消而中断
+        this.buffer = new SegmentBuffer(bizTag, () -> idSegmentDao.updateMaxId(bizTag)
+                .flatMap(updated -> updated == 0
+                        ? Mono.<IdSegment>error(new IllegalStateException("id_segment 中没有 bizTag: " + bizTag))
+                        : idSegmentDao.getSegment(bizTag))
+                .as(transactionalOperator::transactional)
+                .toFuture());
+    }
+
+    public void init() {
+        buffer.init();
+    }
+
+    @Override
+    public Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            long id = buffer.tryNextId();
+            if (id != SegmentBuffer.EXHAUSTED) {
+                return Mono.just(id);
+            }
+            return Mono.fromFuture(buffer.refill()).then(nextId());
+        });
+    }
+}
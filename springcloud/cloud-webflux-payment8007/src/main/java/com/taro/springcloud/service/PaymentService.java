@@ -0,0 +1,24 @@
+package com.taro.springcloud.service;
+
+import com.taro.springcloud.entities.Payment;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+public interface PaymentService {
+
+    //插入成功后回填 id
+    public Mono<Payment> create(Payment payment);
+
+    //返回插入的行数，插入成功后回填 id
+    public Mono<Integer> createBatch(List<Payment> payments);
+
+    //不存在时为空
+    public Mono<Payment> getPaymentById(Long id);
+
+    //按传入 id 第一次出现的顺序返回，重复的 id 只返回一条，不存在的 id 直接跳过
+    public Mono<List<Payment>> getPaymentsByIds(List<Long> ids);
+
+    public Flux<Payment> exportPayments(Long afterId);
+}
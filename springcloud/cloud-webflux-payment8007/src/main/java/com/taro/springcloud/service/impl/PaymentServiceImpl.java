@@ -0,0 +1,116 @@
+package com.taro.springcloud.service.impl;
+
+import com.taro.springcloud.dao.PaymentDao;
+import com.taro.springcloud.entities.Payment;
+import com.taro.springcloud.id.IdAllocator;
+import com.taro.springcloud.service.PaymentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ClassName PaymentServiceImpl
+ * Author taro
+ * Date 2026/10/18 10:35
+ * Version 1.0
+ */
+
+@Service
+public class PaymentServiceImpl implements PaymentService {
+
+    //单条 insert 语句携带的最大行数，与 8002 相同
+    private static final int BATCH_CHUNK_SIZE = 500;
+
+    //单条 in 查询携带的最大 id 数
+    private static final int QUERY_CHUNK_SIZE = 1000;
+
+    @Autowired
+    private PaymentDao paymentDao;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    //payment.id.allocator=segment 时存在，否则 id 由数据库自增生成
+    @Autowired(required = false)
+    private IdAllocator idAllocator;
+
+    @Override
+    public Mono<Payment> create(Payment payment) {
+        if (idAllocator != null) {
+            return idAllocator.nextId().flatMap(id -> {
+                payment.setId(id);
+                return paymentDao.createWithId(payment);
+            }).thenReturn(payment);
+        }
+        return paymentDao.create(payment).map(id -> {
+            payment.setId(id);
+            return payment;
+        });
+    }
+
+    //整批在同一个事务中提交，任意一段失败则整体回滚
+    @Override
+    public Mono<Integer> createBatch(List<Payment> payments) {
+        Flux<Integer> inserted;
+        if (idAllocator != null) {
+            //先分配好 id，号段的申请不加入插入的事务
+            inserted = Flux.fromIterable(payments)
+                    .concatMap(payment -> idAllocator.nextId().doOnNext(payment::setId))
+                    .thenMany(Flux.defer(() -> Flux.fromIterable(payments)
+                            .buffer(BATCH_CHUNK_SIZE)
+                            .concatMap(paymentDao::createBatchWithId)
+                            .as(transactionalOperator::transactional)));
+        } else {
+            //多行 insert 只能拿到第一个生成的 id，自增模式下逐条插入
+            inserted = Flux.fromIterable(payments)
+                    .concatMap(payment -> paymentDao.create(payment).map(id -> {
+                        payment.setId(id);
+                        return 1;
+                    }))
+                    .as(transactionalOperator::transactional);
+        }
+        return inserted.reduce(0, Integer::sum);
+    }
+
+    @Override
+    public Mono<Payment> getPaymentById(Long id) {
+        return paymentDao.getPaymentById(id);
+    }
+
+    @Override
+    public Mono<List<Payment>> getPaymentsByIds(List<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinct.isEmpty()) {
+            return Mono.just(new ArrayList<>());
+        }
+        return Flux.fromIterable(distinct)
+                .buffer(QUERY_CHUNK_SIZE)
+                .concatMap(paymentDao::getPaymentsByIds)
+                .collectMap(Payment::getId)
+                .map(found -> inRequestOrder(distinct, found));
+    }
+
+    //导出的数据逐行交给下游，不在内存中堆积
+    @Override
+    public Flux<Payment> exportPayments(Long afterId) {
+        return paymentDao.exportPayments(afterId);
+    }
+
+    private static List<Payment> inRequestOrder(List<Long> ids, Map<Long, Payment> found) {
+        List<Payment> payments = new ArrayList<>(found.size());
+        for (Long id : ids) {
+            Payment payment = found.get(id);
+            if (payment != null) {
+                payments.add(payment);
+            }
+        }
+        return payments;
+    }
+}
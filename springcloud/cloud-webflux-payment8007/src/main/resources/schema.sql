@@ -0,0 +1,14 @@
+CREATE TABLE IF NOT EXISTS payment (
+    id     BIGINT AUTO_INCREMENT PRIMARY KEY,
+    serial VARCHAR(200) DEFAULT ''
+);
+
+CREATE TABLE IF NOT EXISTS id_segment (
+    biz_tag VARCHAR(64) PRIMARY KEY,
+    max_id  BIGINT NOT NULL DEFAULT 0,
+    step    INT NOT NULL DEFAULT 1000
+);
+
+INSERT INTO id_segment(biz_tag, max_id, step)
+SELECT 'payment', IFNULL(MAX(id), 0), 1000 FROM payment
+WHERE NOT EXISTS (SELECT 1 FROM id_segment WHERE biz_tag = 'payment');
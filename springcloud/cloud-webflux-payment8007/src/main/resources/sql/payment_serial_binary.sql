@@ -0,0 +1,14 @@
+-- payment.serial.storage=binary 前执行：把 32 位小写十六进制的 serial 转成 BINARY(16)
+-- 不能转换的 serial（空串、大写、其他格式）先原样复制到 payment_serial_legacy，转换后 payment 里这些行的 serial 为 null
+-- 执行后检查 payment_serial_legacy，需要时按 id 回查原始流水号
+create table `payment_serial_legacy` (
+`id` bigint(20) not null comment 'payment.id',
+`serial` varchar(200) not null comment '转换前的原始流水号',
+primary key(`id`)
+)engine=InnoDB default charset=utf8;
+insert into `payment_serial_legacy`(`id`, `serial`)
+select `id`, `serial` from `payment` where `serial` is not null and not (`serial` regexp binary '^[0-9a-f]{32}$');
+alter table `payment` add column `serial_bin` binary(16) null;
+update `payment` set `serial_bin` = unhex(`serial`) where `serial` regexp binary '^[0-9a-f]{32}$';
+alter table `payment` drop column `serial`, change column `serial_bin` `serial` binary(16) null;
+create index `idx_payment_serial` on `payment`(`serial`);
@@ -1,5 +1,13 @@
 package com.taro.springcloud.config;
 
+import com.taro.springcloud.http.HttpClientProperties;
+import com.taro.springcloud.http.PooledHttpClientFactory;
+import com.taro.springcloud.limit.ConcurrencyLimitInterceptor;
+import com.taro.springcloud.limit.ConcurrencyLimitProperties;
+import com.taro.springcloud.limit.ConcurrencyLimiters;
+import com.taro.springcloud.limit.LimitedFeignClientPostProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,9 +23,42 @@ import org.springframework.web.client.RestTemplate;
 @Configuration
 public class ApplicationContextConfig {
 
+    @Bean
+    @ConfigurationProperties(prefix = "consumer.http")
+    public HttpClientProperties httpClientProperties() {
+        return new HttpClientProperties();
+    }
+
+    //连接池复用到服务端的长连接，同时作为 MeterBinder 输出连接池指标
+    @Bean(destroyMethod = "close")
+    public PooledHttpClientFactory pooledHttpClientFactory(HttpClientProperties httpClientProperties) {
+        return new PooledHttpClientFactory(httpClientProperties);
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "consumer.limit")
+    public ConcurrencyLimitProperties concurrencyLimitProperties() {
+        return new ConcurrencyLimitProperties();
+    }
+
+    //每个下游的自适应并发上限，同时作为 MeterBinder 输出 client.concurrency.* 指标
+    @Bean
+    public ConcurrencyLimiters concurrencyLimiters(ConcurrencyLimitProperties concurrencyLimitProperties) {
+        return new ConcurrencyLimiters(concurrencyLimitProperties);
+    }
+
+    //feign 调用和 RestTemplate 共用同一个下游的上限
+    @Bean
+    public static LimitedFeignClientPostProcessor limitedFeignClientPostProcessor(ObjectProvider<ConcurrencyLimiters> concurrencyLimiters) {
+        return new LimitedFeignClientPostProcessor(concurrencyLimiters);
+    }
+
+    //拦截器在 @LoadBalanced 的拦截器之前执行，按服务名限制
     @Bean
     @LoadBalanced
-    public RestTemplate getRestTemplate(){
-        return new RestTemplate();
+    public RestTemplate getRestTemplate(PooledHttpClientFactory pooledHttpClientFactory, ConcurrencyLimiters concurrencyLimiters){
+        RestTemplate restTemplate = new RestTemplate(pooledHttpClientFactory.requestFactory());
+        restTemplate.getInterceptors().add(new ConcurrencyLimitInterceptor(concurrencyLimiters));
+        return restTemplate;
     }
 }
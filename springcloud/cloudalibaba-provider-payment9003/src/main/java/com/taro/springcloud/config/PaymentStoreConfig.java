@@ -0,0 +1,48 @@
+package com.taro.springcloud.config;
+
+import com.taro.springcloud.entities.Payment;
+import com.taro.springcloud.store.ConcurrentPaymentStore;
+import com.taro.springcloud.store.MappedPaymentStore;
+import com.taro.springcloud.store.PaymentStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+/**
+ * ClassName PaymentStoreConfig
+ * Author taro
+ * Date 2026/10/18 22:30
+ * Version 1.0
+ */
+
+@Configuration
+public class PaymentStoreConfig {
+
+    //默认只保存在内存中，重启后丢失
+    @Bean
+    @ConditionalOnProperty(prefix = "payment.store", name = "mode", havingValue = "memory", matchIfMissing = true)
+    public PaymentStore paymentStore(@Value("${payment.store.initial-capacity:1024}") int initialCapacity) {
+        return seed(new ConcurrentPaymentStore(initialCapacity));
+    }
+
+    //mapped 模式写入内存映射文件，重启时从文件重建索引
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "payment.store", name = "mode", havingValue = "mapped")
+    public MappedPaymentStore mappedPaymentStore(@Value("${payment.store.initial-capacity:1024}") int initialCapacity,
+                                                 @Value("${payment.store.file:data/payment-${server.port}.dat}") String file) {
+        return seed(new MappedPaymentStore(Paths.get(file), initialCapacity));
+    }
+
+    //只在存储为空时写入示例数据，避免每次重启都追加到文件中
+    private static <S extends PaymentStore> S seed(S store) {
+        if (store.size() == 0) {
+            store.put(new Payment(1L, "28a8c1e3bc2742d8848569891fb42181"));
+            store.put(new Payment(2L, "bba8c1e3bc2742d8848569891ac32182"));
+            store.put(new Payment(3L, "6ua8c1e3bc2742d8848569891xt92183"));
+        }
+        return store;
+    }
+}
@@ -2,13 +2,17 @@ package com.taro.springcloud.controller;
 
 import com.taro.springcloud.entities.CommonResult;
 import com.taro.springcloud.entities.Payment;
+import com.taro.springcloud.store.PaymentStore;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.HashMap;
+import java.util.List;
 
 /**
  * ClassName PaymentController
@@ -24,16 +28,33 @@ public class PaymentController {
     @Value("${server.port}")
     private String serverPort;
 
-    public static HashMap<Long, Payment> hashMap = new HashMap<>();
-    static{
-        hashMap.put(1L,new Payment(1L,"28a8c1e3bc2742d8848569891fb42181"));
-        hashMap.put(2L,new Payment(2L,"bba8c1e3bc2742d8848569891ac32182"));
-        hashMap.put(3L,new Payment(3L,"6ua8c1e3bc2742d8848569891xt92183"));
-    }
+    @Autowired
+    private PaymentStore paymentStore;
 
     @GetMapping("/{id}")
     public CommonResult<Payment> paymentQuery(@PathVariable("id") Long id){
-        Payment payment = hashMap.get(id);
+        Payment payment = paymentStore.get(id);
         return new CommonResult<Payment>(200, "success, serverPort: " + serverPort, payment);
     }
+
+    @PostMapping("/create")
+    public CommonResult<Payment> create(@RequestBody Payment payment){
+        if (payment.getId() == null) {
+            return new CommonResult<>(400, "id 不能为空");
+        }
+        paymentStore.put(payment);
+        return new CommonResult<>(200, "success, serverPort: " + serverPort, payment);
+    }
+
+    //批量导入，已存在的 id 会被覆盖
+    @PostMapping("/create/batch")
+    public CommonResult<Long> createBatch(@RequestBody List<Payment> payments){
+        for (Payment payment : payments) {
+            if (payment.getId() == null) {
+                return new CommonResult<>(400, "id 不能为空");
+            }
+        }
+        paymentStore.putAll(payments);
+        return new CommonResult<>(200, "success, serverPort: " + serverPort, paymentStore.size());
+    }
 }